@@ -0,0 +1,134 @@
+package bench;
+
+import vmmanager.VirtualMemoryManagerV4;
+import vmmanager.VmOptions;
+import vmsimulation.BackingStore;
+import vmsimulation.MainMemory;
+import vmsimulation.MemoryException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+
+public class BlockAccessBenchmark {
+
+    private static final int RAM_SIZE=1 << 16;
+    private static final int DISK_SIZE=1 << 20;
+    private static final int PAGE_SIZE=256;
+    private static final int ROUNDS=5;
+
+    public static void main(String[] args) throws MemoryException {
+        checkWriteBack();
+        System.out.println("block\tbyte ns/B\tarray ns/B\tbuffer ns/B\tlong ns/B");
+        for (int block=16; block <= 4096; block*=4) {
+            for (int round=0; round < ROUNDS; round++) {
+                run(block, round == ROUNDS - 1);
+            }
+        }
+    }
+
+    private static VirtualMemoryManagerV4 manager() throws MemoryException {
+        VmOptions options=new VmOptions();
+        options.events="NONE";
+        return new VirtualMemoryManagerV4(
+                new MainMemory(RAM_SIZE), new BackingStore(DISK_SIZE, PAGE_SIZE, 1), PAGE_SIZE, options);
+    }
+
+    private static void checkWriteBack() throws MemoryException {
+        VmOptions options=new VmOptions();
+        options.events="NONE";
+        options.writeBackHigh=1;
+        options.writeBackLow=0;
+        BackingStore disk=new BackingStore(DISK_SIZE, PAGE_SIZE, 1);
+        VirtualMemoryManagerV4 manager=new VirtualMemoryManagerV4(new MainMemory(RAM_SIZE), disk, PAGE_SIZE, options);
+        byte[] expected=new byte[DISK_SIZE];
+        for (int page=0; page < DISK_SIZE / PAGE_SIZE; page++) {
+            System.arraycopy(disk.readPage(page), 0, expected, page * PAGE_SIZE, PAGE_SIZE);
+        }
+        Random random=new Random(0);
+        byte[] data=new byte[2 * PAGE_SIZE];
+        ByteBuffer buffer=ByteBuffer.allocateDirect(data.length);
+        for (int i=0; i < 20000; i++) {
+            int address=random.nextInt(DISK_SIZE - data.length);
+            int length=1 + random.nextInt(data.length);
+            random.nextBytes(data);
+            switch (i % 3) {
+                case 0:
+                    manager.writeBlock(address, data, 0, length);
+                    break;
+                case 1:
+                    buffer.clear();
+                    buffer.put(data, 0, length).flip();
+                    manager.writeBlock(address, buffer);
+                    break;
+                default:
+                    length=8;
+                    manager.writeLong(address, ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).getLong(0));
+                    break;
+            }
+            System.arraycopy(data, 0, expected, address, length);
+        }
+        manager.close();
+        for (int page=0; page < DISK_SIZE / PAGE_SIZE; page++) {
+            int from=page * PAGE_SIZE;
+            if (!Arrays.equals(disk.readPage(page), 0, PAGE_SIZE, expected, from, from + PAGE_SIZE)) {
+                throw new IllegalStateException("Block writes lost under write-back on page " + page);
+            }
+        }
+        System.out.println("write-back check passed");
+    }
+
+    private static void run(int block, boolean print) throws MemoryException {
+        int blocks=(DISK_SIZE / block) / 4;
+        int[] addresses=new int[blocks];
+        Random random=new Random(block);
+        for (int i=0; i < blocks; i++) {
+            addresses[i]=random.nextInt(DISK_SIZE - block);
+        }
+        long bytes=(long) blocks * block;
+        byte[] data=new byte[block];
+        ByteBuffer buffer=ByteBuffer.allocateDirect(block);
+        long sink=0;
+
+        VirtualMemoryManagerV4 manager=manager();
+        long start=System.nanoTime();
+        for (int address : addresses) {
+            for (int i=0; i < block; i++) {
+                sink+=manager.read(address + i);
+            }
+        }
+        long byteNs=System.nanoTime() - start;
+
+        manager=manager();
+        start=System.nanoTime();
+        for (int address : addresses) {
+            manager.readBlock(address, data, 0, block);
+            sink+=data[0];
+        }
+        long arrayNs=System.nanoTime() - start;
+
+        manager=manager();
+        start=System.nanoTime();
+        for (int address : addresses) {
+            buffer.clear();
+            manager.readBlock(address, buffer);
+            sink+=buffer.get(0);
+        }
+        long bufferNs=System.nanoTime() - start;
+
+        manager=manager();
+        start=System.nanoTime();
+        for (int address : addresses) {
+            for (int i=0; i + 8 <= block; i+=8) {
+                sink+=manager.readLong(address + i);
+            }
+        }
+        long longNs=System.nanoTime() - start;
+
+        if (print) {
+            System.out.printf("%d\t%.2f\t\t%.2f\t\t%.2f\t\t%.2f\t(%d)%n", block, (double) byteNs / bytes,
+                    (double) arrayNs / bytes, (double) bufferNs / bytes, (double) longNs / bytes, sink & 1);
+        }
+    }
+}
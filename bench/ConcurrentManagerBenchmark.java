@@ -0,0 +1,68 @@
+package bench;
+
+import vmmanager.ConcurrentVirtualMemoryManager;
+import vmmanager.VmOptions;
+import vmsimulation.BackingStore;
+import vmsimulation.MainMemory;
+import vmsimulation.MemoryException;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+public class ConcurrentManagerBenchmark {
+
+    private static final int RAM_SIZE=1 << 20;
+    private static final int DISK_SIZE=1 << 22;
+    private static final int PAGE_SIZE=4096;
+    private static final int OPS_PER_THREAD=2000000;
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads=Runtime.getRuntime().availableProcessors();
+        System.out.println("threads\tworking set\tkops/s\tfaults");
+        for (int workingSet : new int[] {RAM_SIZE / 2, DISK_SIZE}) {
+            for (int threads=1; threads <= maxThreads; threads*=2) {
+                run(threads, workingSet);
+            }
+        }
+    }
+
+    private static void run(int threads, int workingSet) throws Exception {
+        VmOptions options=new VmOptions();
+        options.stripes=threads;
+        ConcurrentVirtualMemoryManager manager=new ConcurrentVirtualMemoryManager(
+                new MainMemory(RAM_SIZE), new BackingStore(DISK_SIZE, PAGE_SIZE, 1), PAGE_SIZE, options);
+        CountDownLatch start=new CountDownLatch(1);
+        Thread[] workers=new Thread[threads];
+        Throwable[] failure=new Throwable[1];
+        for (int t=0; t < threads; t++) {
+            Random random=new Random(t);
+            workers[t]=new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i=0; i < OPS_PER_THREAD; i++) {
+                        int address=random.nextInt(workingSet);
+                        if ((i & 7) == 0) {
+                            manager.writeByte(address, (byte) i);
+                        } else {
+                            manager.readByte(address);
+                        }
+                    }
+                } catch (InterruptedException | MemoryException e) {
+                    failure[0]=e;
+                }
+            });
+            workers[t].start();
+        }
+        long begin=System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed=System.nanoTime() - begin;
+        if (failure[0] != null) {
+            throw new IllegalStateException(failure[0]);
+        }
+        long ops=(long) threads * OPS_PER_THREAD;
+        System.out.println(threads + "\t" + workingSet + "\t\t" + ops * 1000000 / Math.max(1, elapsed) + "\t" + manager.getPageFaultCount());
+    }
+}
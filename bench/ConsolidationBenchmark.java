@@ -0,0 +1,82 @@
+package bench;
+
+import vmmanager.MultiProcessMemoryManager;
+import vmmanager.VmOptions;
+import vmsimulation.BackingStore;
+import vmsimulation.MainMemory;
+import vmsimulation.MemoryException;
+
+import java.util.Random;
+
+public class ConsolidationBenchmark {
+
+    private static final int RAM_SIZE=1 << 16;
+    private static final int DISK_SIZE=1 << 20;
+    private static final int PAGE_SIZE=256;
+    private static final int PROCESS_PAGES=512;
+    private static final int ACCESSES_PER_PROCESS=50000;
+    private static final int QUANTUM=100;
+    private static final int[] HOT_PAGES={16, 48, 96, 160};
+
+    public static void main(String[] args) throws MemoryException {
+        int processes=HOT_PAGES.length;
+        int numFrames=RAM_SIZE / PAGE_SIZE;
+        System.out.println("scope\t\tprocess\thot pages\tfaults\tstolen\taccesses");
+        for (int p=0; p < processes; p++) {
+            long[] faults=run("LOCAL", new int[] {HOT_PAGES[p]}, numFrames);
+            System.out.println("ALONE\t\t" + p + "\t" + HOT_PAGES[p] + "\t\t" + faults[0] + "\t-\t" + faults[2]);
+        }
+        for (String scope : new String[] {"GLOBAL", "LOCAL", "WORKING_SET"}) {
+            long[] faults=run(scope, HOT_PAGES, numFrames / processes);
+            for (int p=0; p < processes; p++) {
+                System.out.println((scope.length() < 8 ? scope + "\t" : scope) + "\t" + p + "\t" + HOT_PAGES[p] + "\t\t"
+                        + faults[p] + "\t" + faults[processes + p] + "\t" + faults[2 * processes + p]);
+            }
+        }
+    }
+
+    private static long[] run(String scope, int[] hotPages, int quota) throws MemoryException {
+        VmOptions options=new VmOptions();
+        options.replacementScope=scope;
+        MultiProcessMemoryManager manager=new MultiProcessMemoryManager(
+                new MainMemory(RAM_SIZE), new BackingStore(DISK_SIZE, PAGE_SIZE, 1), PAGE_SIZE, options);
+        int count=hotPages.length;
+        int[] asids=new int[count];
+        Random[] randoms=new Random[count];
+        long[] accesses=new long[count];
+        byte[][] shadow=new byte[count][PROCESS_PAGES * PAGE_SIZE];
+        boolean[][] written=new boolean[count][PROCESS_PAGES * PAGE_SIZE];
+        for (int p=0; p < count; p++) {
+            asids[p]=manager.createProcess(PROCESS_PAGES, quota);
+            randoms[p]=new Random(p);
+        }
+        for (int i=0; i < count * ACCESSES_PER_PROCESS; i++) {
+            int p=(i / QUANTUM) % count;
+            while (manager.isSuspended(asids[p])) {
+                p=(p + 1) % count;
+            }
+            accesses[p]++;
+            Random random=randoms[p];
+            int page=random.nextInt(10) < 9 ? random.nextInt(hotPages[p]) : random.nextInt(PROCESS_PAGES);
+            int address=page * PAGE_SIZE + random.nextInt(PAGE_SIZE);
+            if ((i & 3) == 0) {
+                manager.writeByte(asids[p], address, (byte) i);
+                shadow[p][address]=(byte) i;
+                written[p][address]=true;
+            } else {
+                byte value=manager.readByte(asids[p], address);
+                if (written[p][address] && value != shadow[p][address]) {
+                    throw new IllegalStateException(scope + ": process " + p + " read " + value + " at address "
+                            + address + " after writing " + shadow[p][address]);
+                }
+            }
+        }
+        long[] result=new long[3 * count];
+        for (int p=0; p < count; p++) {
+            result[p]=manager.getPageFaultCount(asids[p]);
+            result[count + p]=manager.getStolenFrameCount(asids[p]);
+            result[2 * count + p]=accesses[p];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,95 @@
+package bench;
+
+import vmmanager.ManagerHandles;
+import vmmanager.VirtualMemoryManager;
+import vmmanager.VirtualMemoryManagerV4;
+import vmmanager.VmOptions;
+import vmsimulation.BackingStore;
+import vmsimulation.MainMemory;
+import vmsimulation.MemoryException;
+
+import java.lang.reflect.Method;
+import java.util.Random;
+
+public class DispatchBenchmark {
+
+    private static final int RAM_SIZE=1 << 16;
+    private static final int DISK_SIZE=1 << 18;
+    private static final int PAGE_SIZE=256;
+    private static final int TRANSACTIONS=2000000;
+    private static final int ROUNDS=5;
+
+    public static void main(String[] args) throws Exception {
+        int[] addresses=addresses();
+        System.out.println("dispatch\tns/transaction\tfaults");
+        for (int round=0; round < ROUNDS; round++) {
+            boolean print=round == ROUNDS - 1;
+            runReflective(addresses, print);
+            run("handles", new ManagerHandles(manager()), addresses, false, print);
+            run("boxed", manager(), addresses, true, print);
+            run("interface", manager(), addresses, false, print);
+        }
+    }
+
+    private static VirtualMemoryManagerV4 manager() throws MemoryException {
+        VmOptions options=new VmOptions();
+        options.events="NONE";
+        return new VirtualMemoryManagerV4(
+                new MainMemory(RAM_SIZE), new BackingStore(DISK_SIZE, PAGE_SIZE, 1), PAGE_SIZE, options);
+    }
+
+    private static void run(String name, VirtualMemoryManager vm, int[] addresses, boolean boxed, boolean print) throws MemoryException {
+        long start=System.nanoTime();
+        if (boxed) {
+            for (int i=0; i < TRANSACTIONS; i++) {
+                byte value=vm.readByte(addresses[2 * i]);
+                vm.writeByte(addresses[2 * i + 1], (byte) (value + i));
+            }
+        } else {
+            for (int i=0; i < TRANSACTIONS; i++) {
+                byte value=vm.read(addresses[2 * i]);
+                vm.write(addresses[2 * i + 1], (byte) (value + i));
+            }
+        }
+        long elapsed=System.nanoTime() - start;
+        if (print) {
+            System.out.println(name + "\t" + elapsed / TRANSACTIONS + "\t\t" + vm.getPageFaultCount());
+        }
+    }
+
+    private static void runReflective(int[] addresses, boolean print) throws Exception {
+        VirtualMemoryManagerV4 vm=manager();
+        Method readByte=null;
+        Method writeByte=null;
+        for (Method method : vm.getClass().getDeclaredMethods()) {
+            if (method.getName().equals("readByte")) {
+                readByte=method;
+            } else if (method.getName().equals("writeByte")) {
+                writeByte=method;
+            }
+        }
+        long start=System.nanoTime();
+        for (int i=0; i < TRANSACTIONS; i++) {
+            byte value=(Byte) readByte.invoke(vm, addresses[2 * i]);
+            writeByte.invoke(vm, addresses[2 * i + 1], (byte) (value + i));
+        }
+        long elapsed=System.nanoTime() - start;
+        if (print) {
+            System.out.println("reflect\t" + elapsed / TRANSACTIONS + "\t\t" + vm.getPageFaultCount());
+        }
+    }
+
+    private static int[] addresses() {
+        Random random=new Random(7);
+        int[] addresses=new int[2 * TRANSACTIONS];
+        for (int i=0; i < addresses.length; i++) {
+            int address=DISK_SIZE;
+            while (address == DISK_SIZE) {
+                double distance=Math.min(100.0, Math.abs(random.nextGaussian() * 5));
+                address=(int) (DISK_SIZE * distance / 100.0);
+            }
+            addresses[i]=address;
+        }
+        return addresses;
+    }
+}
@@ -0,0 +1,59 @@
+package bench;
+
+import vmmanager.MultiProcessMemoryManager;
+import vmmanager.VmOptions;
+import vmsimulation.BackingStore;
+import vmsimulation.MainMemory;
+import vmsimulation.MemoryException;
+
+import java.util.Random;
+
+public class ForkBenchmark {
+
+    private static final int RAM_SIZE=1 << 20;
+    private static final int DISK_SIZE=1 << 23;
+    private static final int PAGE_SIZE=256;
+    private static final int ROUNDS=5;
+
+    public static void main(String[] args) throws MemoryException {
+        System.out.println("pages\tcopy us\t\tfork us\t\tcow faults\tshared frames\tcopy faults\tfork faults");
+        for (int pages=256; pages <= 2048; pages*=2) {
+            for (int round=0; round < ROUNDS; round++) {
+                run(pages, round == ROUNDS - 1);
+            }
+        }
+    }
+
+    private static void run(int pages, boolean print) throws MemoryException {
+        VmOptions options=new VmOptions();
+        MultiProcessMemoryManager manager=new MultiProcessMemoryManager(
+                new MainMemory(RAM_SIZE), new BackingStore(DISK_SIZE, PAGE_SIZE, 1), PAGE_SIZE, options);
+        int parent=manager.createProcess(pages, 0);
+        for (int address=0; address < pages * PAGE_SIZE; address+=PAGE_SIZE) {
+            manager.writeByte(parent, address, (byte) address);
+        }
+
+        long start=System.nanoTime();
+        int copy=manager.createProcess(pages, 0);
+        for (int address=0; address < pages * PAGE_SIZE; address++) {
+            manager.writeByte(copy, address, manager.readByte(parent, address));
+        }
+        long copyNs=System.nanoTime() - start;
+        long copyFaults=manager.getPageFaultCount(copy);
+        manager.destroyProcess(copy);
+
+        start=System.nanoTime();
+        int child=manager.forkProcess(parent);
+        long forkNs=System.nanoTime() - start;
+        int shared=manager.getSharedFrameCount();
+        Random random=new Random(pages);
+        for (int i=0; i < pages / 10; i++) {
+            manager.writeByte(child, random.nextInt(pages * PAGE_SIZE), (byte) i);
+        }
+        if (print) {
+            System.out.println(pages + "\t" + copyNs / 1000 + "\t\t" + forkNs / 1000 + "\t\t"
+                    + manager.getCopyOnWriteCount(child) + "\t\t" + shared + "\t\t" + copyFaults
+                    + "\t\t" + manager.getPageFaultCount(child));
+        }
+    }
+}
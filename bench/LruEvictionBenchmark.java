@@ -0,0 +1,111 @@
+package bench;
+
+import vmmanager.LruList;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class LruEvictionBenchmark {
+
+    private static final int FRAMES=64;
+    private static final int FAULTS=200000;
+
+    private static int[] lastVictims;
+
+    public static void main(String[] args) {
+        System.out.println("pages\tscan ns/fault\tlist ns/fault\tsame victims");
+        for (int shift=10; shift <= 22; shift+=2) {
+            int numPages=1 << shift;
+            int[] trace=buildTrace(numPages, 42);
+            runScan(numPages, trace);
+            runList(numPages, trace);
+            long scanNs=runScan(numPages, trace);
+            int[] scanVictims=lastVictims;
+            long listNs=runList(numPages, trace);
+            boolean same=Arrays.equals(scanVictims, lastVictims);
+            System.out.println(numPages + "\t" + (scanNs / FAULTS) + "\t\t" + (listNs / FAULTS) + "\t\t" + same);
+            if (!same) {
+                throw new IllegalStateException("LruList evicted " + lastVictims.length + " pages in a different order "
+                        + "than the linear scan over " + numPages + " pages");
+            }
+        }
+    }
+
+    private static int[] buildTrace(int numPages, long seed) {
+        Random rng=new Random(seed);
+        int[] trace=new int[FAULTS];
+        for (int i=0; i < FAULTS; i++) {
+            trace[i]=rng.nextInt(numPages);
+        }
+        return trace;
+    }
+
+    private static long runScan(int numPages, int[] trace) {
+        int[] pageTable=new int[numPages];
+        long[] lastUsed=new long[numPages];
+        Arrays.fill(pageTable, -1);
+        long timeCounter=0;
+        int nextFreeFrame=0;
+        int[] victims=new int[FAULTS];
+        int evictions=0;
+        long start=System.nanoTime();
+        for (int page : trace) {
+            if (pageTable[page] != -1) {
+                lastUsed[page]=++timeCounter;
+                continue;
+            }
+            int frame;
+            if (nextFreeFrame < FRAMES) {
+                frame=nextFreeFrame++;
+            } else {
+                int victimPage=-1;
+                long oldestTime=Long.MAX_VALUE;
+                for (int p=0; p < numPages; p++) {
+                    if (pageTable[p] != -1 && lastUsed[p] < oldestTime) {
+                        oldestTime=lastUsed[p];
+                        victimPage=p;
+                    }
+                }
+                frame=pageTable[victimPage];
+                pageTable[victimPage]=-1;
+                victims[evictions++]=victimPage;
+            }
+            pageTable[page]=frame;
+            lastUsed[page]=++timeCounter;
+        }
+        long elapsed=System.nanoTime() - start;
+        lastVictims=Arrays.copyOf(victims, evictions);
+        return elapsed;
+    }
+
+    private static long runList(int numPages, int[] trace) {
+        int[] pageTable=new int[numPages];
+        int[] framePage=new int[FRAMES];
+        Arrays.fill(pageTable, -1);
+        LruList lru=new LruList(FRAMES);
+        int nextFreeFrame=0;
+        int[] victims=new int[FAULTS];
+        int evictions=0;
+        long start=System.nanoTime();
+        for (int page : trace) {
+            int frame=pageTable[page];
+            if (frame != -1) {
+                lru.touch(frame);
+                continue;
+            }
+            if (nextFreeFrame < FRAMES) {
+                frame=nextFreeFrame++;
+            } else {
+                frame=lru.eldest();
+                pageTable[framePage[frame]]=-1;
+                victims[evictions++]=framePage[frame];
+            }
+            pageTable[page]=frame;
+            framePage[frame]=page;
+            lru.touch(frame);
+        }
+        long elapsed=System.nanoTime() - start;
+        lastVictims=Arrays.copyOf(victims, evictions);
+        return elapsed;
+    }
+}
@@ -0,0 +1,115 @@
+package bench;
+
+import vmmanager.PageTransfer;
+import vmsimulation.BackingStore;
+import vmsimulation.MainMemory;
+import vmsimulation.MemoryException;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class PageTransferBenchmark {
+
+    private static final int RAM_SIZE=1 << 20;
+    private static final int DISK_SIZE=1 << 22;
+    private static final long BYTES_PER_RUN=1L << 30;
+    private static final int CHECK_ROUNDS=20000;
+
+    public static void main(String[] args) throws MemoryException {
+        System.out.println("page size\tbyte loop MB/s\tbulk MB/s");
+        for (int pageSize=16; pageSize <= 65536; pageSize*=4) {
+            MainMemory memory=new MainMemory(RAM_SIZE);
+            BackingStore disk=new BackingStore(DISK_SIZE, pageSize, 1);
+            PageTransfer transfer=new PageTransfer(memory, disk, pageSize);
+            int numFrames=RAM_SIZE / pageSize;
+            int numPages=DISK_SIZE / pageSize;
+            long rounds=BYTES_PER_RUN / pageSize / 2;
+            check(pageSize, numFrames, numPages);
+            runLoop(memory, disk, pageSize, numFrames, numPages, rounds / 8);
+            runBulk(transfer, numFrames, numPages, rounds / 8);
+            long loopNs=runLoop(memory, disk, pageSize, numFrames, numPages, rounds);
+            long bulkNs=runBulk(transfer, numFrames, numPages, rounds);
+            System.out.println(pageSize + "\t\t" + megabytesPerSecond(loopNs) + "\t\t" + megabytesPerSecond(bulkNs));
+        }
+    }
+
+    private static long runLoop(MainMemory memory, BackingStore disk, int pageSize,
+                                int numFrames, int numPages, long rounds) throws MemoryException {
+        long start=System.nanoTime();
+        for (long r=0; r < rounds; r++) {
+            int page=(int) (r % numPages);
+            int baseAddr=(int) (r % numFrames) * pageSize;
+            loadLoop(memory, disk, pageSize, page, baseAddr);
+            storeLoop(memory, disk, pageSize, page, baseAddr);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void loadLoop(MainMemory memory, BackingStore disk, int pageSize,
+                                 int page, int baseAddr) throws MemoryException {
+        byte[] pageData=disk.readPage(page);
+        for (int i=0; i < pageSize; i++) {
+            memory.writeByte(baseAddr + i, pageData[i]);
+        }
+    }
+
+    private static void storeLoop(MainMemory memory, BackingStore disk, int pageSize,
+                                  int page, int baseAddr) throws MemoryException {
+        byte[] data=new byte[pageSize];
+        for (int i=0; i < pageSize; i++) {
+            data[i]=memory.readByte(baseAddr + i);
+        }
+        disk.writePage(page, data);
+    }
+
+    private static long runBulk(PageTransfer transfer, int numFrames, int numPages, long rounds) throws MemoryException {
+        long start=System.nanoTime();
+        for (long r=0; r < rounds; r++) {
+            int page=(int) (r % numPages);
+            int frame=(int) (r % numFrames);
+            transfer.load(page, frame);
+            transfer.store(page, frame);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void check(int pageSize, int numFrames, int numPages) throws MemoryException {
+        MainMemory loopMemory=new MainMemory(RAM_SIZE);
+        BackingStore loopDisk=new BackingStore(DISK_SIZE, pageSize, 1);
+        MainMemory bulkMemory=new MainMemory(RAM_SIZE);
+        BackingStore bulkDisk=new BackingStore(DISK_SIZE, pageSize, 1);
+        PageTransfer transfer=new PageTransfer(bulkMemory, bulkDisk, pageSize);
+        Random random=new Random(pageSize);
+        for (int r=0; r < CHECK_ROUNDS; r++) {
+            int page=random.nextInt(numPages);
+            int frame=random.nextInt(numFrames);
+            if (random.nextBoolean()) {
+                loadLoop(loopMemory, loopDisk, pageSize, page, frame * pageSize);
+                transfer.load(page, frame);
+            } else {
+                int address=frame * pageSize + random.nextInt(pageSize);
+                byte value=(byte) random.nextInt();
+                loopMemory.writeByte(address, value);
+                bulkMemory.writeByte(address, value);
+                storeLoop(loopMemory, loopDisk, pageSize, page, frame * pageSize);
+                transfer.store(page, frame);
+            }
+        }
+        for (int address=0; address < RAM_SIZE; address++) {
+            if (loopMemory.readByte(address) != bulkMemory.readByte(address)) {
+                throw new IllegalStateException("Bulk transfers with " + pageSize
+                        + "-byte pages left different RAM contents at address " + address);
+            }
+        }
+        for (int page=0; page < numPages; page++) {
+            if (!Arrays.equals(loopDisk.readPage(page), bulkDisk.readPage(page))) {
+                throw new IllegalStateException("Bulk transfers with " + pageSize
+                        + "-byte pages left different disk contents in page " + page);
+            }
+        }
+    }
+
+    private static long megabytesPerSecond(long nanos) {
+        return (BYTES_PER_RUN * 1000L) / Math.max(1, nanos);
+    }
+}
@@ -0,0 +1,209 @@
+package bench;
+
+import vmmanager.VirtualMemoryManager;
+import vmmanager.VirtualMemoryManagerV2;
+import vmmanager.VirtualMemoryManagerV3;
+import vmmanager.VirtualMemoryManagerV4;
+import vmmanager.VmOptions;
+import vmsimulation.BackingStore;
+import vmsimulation.MainMemory;
+import vmsimulation.MemoryException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+public class SnapshotBenchmark {
+
+    private static final int RAM_SIZE=1 << 20;
+    private static final int DISK_SIZE=1 << 23;
+    private static final int PAGE_SIZE=256;
+    private static final int ROUNDS=3;
+
+    private static final int CHECK_RAM_SIZE=1 << 12;
+    private static final int CHECK_DISK_SIZE=1 << 16;
+    private static final int CHECK_PAGE_SIZE=64;
+    private static final int CHECK_OPS=20000;
+    private static final int CHECK_SEEDS=8;
+
+    public static void main(String[] args) throws MemoryException, IOException {
+        Path file=Files.createTempFile("vm", ".snapshot");
+        try {
+            check(file);
+            System.out.println("warm-up\t\twarm-up ms\tsave ms\t\trestore ms\timage bytes\tfaults");
+            for (int transactions=250000; transactions <= 4000000; transactions*=4) {
+                for (int round=0; round < ROUNDS; round++) {
+                    run(file, transactions, round == ROUNDS - 1);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static class Outcome {
+
+        byte[] reads;
+        int faults;
+        long transferredBytes;
+        byte[] memory;
+        byte[] disk;
+    }
+
+    private static void check(Path file) throws MemoryException {
+        String[][] configs={{"V2", "FIFO"}, {"V3", "FIFO"}, {"V4", "FIFO"}, {"V4", "LRU"}};
+        for (String[] config : configs) {
+            for (int seed=0; seed < CHECK_SEEDS; seed++) {
+                check(file, config[0], config[1], seed);
+            }
+        }
+        System.out.println("snapshot check passed for V2, V3 and V4 over " + CHECK_SEEDS + " seeds");
+    }
+
+    private static void check(Path file, String version, String policy, int seed) throws MemoryException {
+        MainMemory memory=new MainMemory(CHECK_RAM_SIZE);
+        BackingStore disk=new BackingStore(CHECK_DISK_SIZE, CHECK_PAGE_SIZE, seed);
+        VirtualMemoryManager vm=checkManager(version, policy, memory, disk);
+        Random random=new Random(seed);
+        replay(vm, random.nextLong());
+        save(vm, file);
+        long ops=random.nextLong();
+        Outcome continuous=outcome(vm, memory, disk, replay(vm, ops));
+
+        restore(vm, file);
+        verify(continuous, outcome(vm, memory, disk, replay(vm, ops)), version, policy, seed, "rollback");
+
+        MainMemory freshMemory=new MainMemory(CHECK_RAM_SIZE);
+        BackingStore freshDisk=new BackingStore(CHECK_DISK_SIZE, CHECK_PAGE_SIZE, seed + CHECK_SEEDS);
+        VirtualMemoryManager fresh=checkManager(version, policy, freshMemory, freshDisk);
+        restore(fresh, file);
+        verify(continuous, outcome(fresh, freshMemory, freshDisk, replay(fresh, ops)), version, policy, seed,
+                "fresh restore");
+    }
+
+    private static VirtualMemoryManager checkManager(String version, String policy, MainMemory memory,
+                                                     BackingStore disk) throws MemoryException {
+        VmOptions options=new VmOptions();
+        options.events="NONE";
+        options.policy=policy;
+        switch (version) {
+            case "V2":
+                return new VirtualMemoryManagerV2(memory, disk, CHECK_PAGE_SIZE, options);
+            case "V3":
+                return new VirtualMemoryManagerV3(memory, disk, CHECK_PAGE_SIZE, options);
+            default:
+                return new VirtualMemoryManagerV4(memory, disk, CHECK_PAGE_SIZE, options);
+        }
+    }
+
+    private static void save(VirtualMemoryManager vm, Path file) throws MemoryException {
+        if (vm instanceof VirtualMemoryManagerV2) {
+            ((VirtualMemoryManagerV2) vm).saveSnapshot(file);
+        } else if (vm instanceof VirtualMemoryManagerV3) {
+            ((VirtualMemoryManagerV3) vm).saveSnapshot(file);
+        } else {
+            ((VirtualMemoryManagerV4) vm).saveSnapshot(file);
+        }
+    }
+
+    private static void restore(VirtualMemoryManager vm, Path file) throws MemoryException {
+        if (vm instanceof VirtualMemoryManagerV2) {
+            ((VirtualMemoryManagerV2) vm).restoreSnapshot(file);
+        } else if (vm instanceof VirtualMemoryManagerV3) {
+            ((VirtualMemoryManagerV3) vm).restoreSnapshot(file);
+        } else {
+            ((VirtualMemoryManagerV4) vm).restoreSnapshot(file);
+        }
+    }
+
+    private static byte[] replay(VirtualMemoryManager vm, long seed) throws MemoryException {
+        Random random=new Random(seed);
+        byte[] reads=new byte[CHECK_OPS];
+        for (int i=0; i < CHECK_OPS; i++) {
+            int address=(int) Math.min(CHECK_DISK_SIZE - 1, Math.abs(random.nextGaussian() * CHECK_DISK_SIZE / 4));
+            if (random.nextInt(4) == 0) {
+                vm.write(address, (byte) random.nextInt());
+            } else {
+                reads[i]=vm.read(address);
+            }
+        }
+        return reads;
+    }
+
+    private static Outcome outcome(VirtualMemoryManager vm, MainMemory memory, BackingStore disk, byte[] reads)
+            throws MemoryException {
+        Outcome outcome=new Outcome();
+        outcome.reads=reads;
+        outcome.faults=vm.getPageFaultCount();
+        outcome.transferredBytes=vm.getTransferredBytes();
+        outcome.memory=new byte[memory.size()];
+        for (int i=0; i < outcome.memory.length; i++) {
+            outcome.memory[i]=memory.readByte(i);
+        }
+        outcome.disk=new byte[disk.size()];
+        for (int page=0; page < disk.size() / CHECK_PAGE_SIZE; page++) {
+            System.arraycopy(disk.readPage(page), 0, outcome.disk, page * CHECK_PAGE_SIZE, CHECK_PAGE_SIZE);
+        }
+        return outcome;
+    }
+
+    private static void verify(Outcome expected, Outcome actual, String version, String policy, int seed, String run) {
+        String mismatch=null;
+        if (!Arrays.equals(expected.reads, actual.reads)) {
+            mismatch="reads";
+        } else if (expected.faults != actual.faults) {
+            mismatch="fault count";
+        } else if (expected.transferredBytes != actual.transferredBytes) {
+            mismatch="transferred bytes";
+        } else if (!Arrays.equals(expected.memory, actual.memory)) {
+            mismatch="RAM contents";
+        } else if (!Arrays.equals(expected.disk, actual.disk)) {
+            mismatch="disk contents";
+        }
+        if (mismatch != null) {
+            throw new IllegalStateException(version + " " + policy + " seed " + seed + ": the " + run
+                    + " differs from the continuous run in its " + mismatch);
+        }
+    }
+
+    private static VirtualMemoryManagerV4 manager(int seed) throws MemoryException {
+        VmOptions options=new VmOptions();
+        options.events="NONE";
+        return new VirtualMemoryManagerV4(
+                new MainMemory(RAM_SIZE), new BackingStore(DISK_SIZE, PAGE_SIZE, seed), PAGE_SIZE, options);
+    }
+
+    private static void run(Path file, int transactions, boolean print) throws MemoryException, IOException {
+        VirtualMemoryManagerV4 warm=manager(1);
+        Random random=new Random(transactions);
+        long start=System.nanoTime();
+        for (int i=0; i < transactions; i++) {
+            int address=(int) Math.min(DISK_SIZE - 1, Math.abs(random.nextGaussian() * DISK_SIZE / 8));
+            if ((i & 3) == 0) {
+                warm.writeByte(address, (byte) i);
+            } else {
+                warm.readByte(address);
+            }
+        }
+        long warmNs=System.nanoTime() - start;
+
+        start=System.nanoTime();
+        warm.saveSnapshot(file);
+        long saveNs=System.nanoTime() - start;
+
+        VirtualMemoryManagerV4 fork=manager(2);
+        start=System.nanoTime();
+        fork.restoreSnapshot(file);
+        long restoreNs=System.nanoTime() - start;
+
+        if (fork.getPageFaultCount() != warm.getPageFaultCount()) {
+            throw new IllegalStateException("Restored fault count differs");
+        }
+        if (print) {
+            System.out.println(transactions + "\t\t" + warmNs / 1000000 + "\t\t" + saveNs / 1000000 + "\t\t"
+                    + restoreNs / 1000000 + "\t\t" + Files.size(file) + "\t" + fork.getPageFaultCount());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package bench;
+
+import vmmanager.SuperpageTable;
+import vmmanager.VirtualMemoryManagerV4;
+import vmmanager.VmOptions;
+import vmsimulation.BackingStore;
+import vmsimulation.MainMemory;
+import vmsimulation.MemoryException;
+
+import java.util.Random;
+
+public class SuperpageBenchmark {
+
+    private static final int RAM_SIZE=1 << 16;
+    private static final int DISK_SIZE=1 << 20;
+    private static final int PAGE_SIZE=64;
+    private static final int HOT_BYTES=48 << 10;
+    private static final int SCAN_BYTES=4096;
+    private static final int SCANS=2000;
+
+    public static void main(String[] args) throws MemoryException {
+        System.out.println("order\tfaults\tsp faults\tbytes\t\ttlb misses\tsp walks\tpromoted\tdemoted\tmigrated\tns/access");
+        for (int order=0; order <= 6; order+=2) {
+            run(order);
+            run(order);
+        }
+    }
+
+    private static void run(int order) throws MemoryException {
+        VmOptions options=new VmOptions();
+        options.events="NONE";
+        options.hugePageOrder=order;
+        VirtualMemoryManagerV4 manager=new VirtualMemoryManagerV4(
+                new MainMemory(RAM_SIZE), new BackingStore(DISK_SIZE, PAGE_SIZE, 1), PAGE_SIZE, options);
+        Random random=new Random(42);
+        long accesses=0;
+        long start=System.nanoTime();
+        for (int s=0; s < SCANS; s++) {
+            boolean cold=random.nextInt(10) == 0;
+            int base=cold ? random.nextInt(DISK_SIZE - SCAN_BYTES) : random.nextInt(HOT_BYTES - SCAN_BYTES);
+            for (int i=0; i < SCAN_BYTES; i++) {
+                if ((i & 7) == 0) {
+                    manager.writeByte(base + i, (byte) i);
+                } else {
+                    manager.readByte(base + i);
+                }
+                accesses++;
+            }
+            for (int i=0; i < 256; i++) {
+                manager.readByte(random.nextInt(HOT_BYTES));
+                accesses++;
+            }
+        }
+        manager.writeBackAllPagesToDisk();
+        long elapsed=System.nanoTime() - start;
+        SuperpageTable superpages=manager.getSuperpages();
+        System.out.println(order + "\t" + manager.getPageFaultCount()
+                + "\t" + (superpages == null ? 0 : superpages.getSuperpageFaultCount())
+                + "\t\t" + manager.getTransferredBytes()
+                + "\t\t" + manager.getTlbMissCount()
+                + "\t\t" + (superpages == null ? 0 : superpages.getSuperpageWalkCount())
+                + "\t\t" + (superpages == null ? 0 : superpages.getPromotionCount())
+                + "\t\t" + (superpages == null ? 0 : superpages.getDemotionCount())
+                + "\t\t" + (superpages == null ? 0 : superpages.getMigratedPageCount())
+                + "\t\t" + elapsed / accesses);
+    }
+}
@@ -0,0 +1,42 @@
+package bench.jmh;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+public class JmhRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options=new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        Collection<RunResult> results=new Runner(options).run();
+        System.out.println();
+        System.out.printf("%-72s %14s %12s %14s %12s%n", "Benchmark", "ops/s", "ns/access", "alloc MB/s", "alloc B/op");
+        for (RunResult result : results) {
+            BenchmarkParams params=result.getParams();
+            StringBuilder name=new StringBuilder(params.getBenchmark().replaceFirst("^bench\\.jmh\\.", ""));
+            for (String key : params.getParamsKeys()) {
+                name.append(' ').append(key).append('=').append(params.getParam(key));
+            }
+            double opsPerSecond=result.getPrimaryResult().getScore();
+            System.out.printf("%-72s %14.0f %12.1f %14.1f %12.1f%n", name, opsPerSecond,
+                    1e9 / opsPerSecond, secondary(result, "gc.alloc.rate"), secondary(result, "gc.alloc.rate.norm"));
+        }
+    }
+
+    private static double secondary(RunResult result, String label) {
+        Result<?> value=result.getSecondaryResults().get(label);
+        return value == null ? Double.NaN : value.getScore();
+    }
+}
@@ -0,0 +1,71 @@
+package bench.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import vmmanager.VmOptions;
+import vmsimulation.MemoryException;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class ManagerBenchmark {
+
+    public static final int RAM_SIZE=1 << 16;
+
+    @Param({"V2", "V3", "V4"})
+    public String version;
+
+    @Param({"HIT", "SEQUENTIAL", "UNIFORM", "ZIPF", "LOCALITY"})
+    public String workload;
+
+    @Param({"64", "1024"})
+    public int pageSize;
+
+    @Param({"4", "16"})
+    public int diskRatio;
+
+    @Param({"NONE", "TEXT"})
+    public String events;
+
+    private ManagerDriver driver;
+    private int[] addresses;
+    private int index=0;
+
+    @Setup(Level.Trial)
+    public void setUp() throws MemoryException {
+        ManagerDriver.silenceOutput();
+        int diskSize=RAM_SIZE * diskRatio;
+        VmOptions options=new VmOptions();
+        options.events=events;
+        driver=ManagerDriver.create(version, RAM_SIZE, diskSize, pageSize, options);
+        addresses=Workload.generate(workload, RAM_SIZE, diskSize, pageSize, 42);
+        driver.warmUp(addresses);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws MemoryException {
+        driver.close();
+        ManagerDriver.restoreOutput();
+    }
+
+    @Benchmark
+    public byte access() throws MemoryException {
+        return driver.access(addresses, index++);
+    }
+}
@@ -0,0 +1,130 @@
+package bench.jmh;
+
+import vmmanager.VirtualMemoryManagerV0;
+import vmmanager.VirtualMemoryManagerV1;
+import vmmanager.VirtualMemoryManagerV2;
+import vmmanager.VirtualMemoryManagerV3;
+import vmmanager.VirtualMemoryManagerV4;
+import vmmanager.VmOptions;
+import vmsimulation.BackingStore;
+import vmsimulation.MainMemory;
+import vmsimulation.MemoryException;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+public abstract class ManagerDriver {
+
+    private static PrintStream savedOut;
+
+    public abstract byte read(int address) throws MemoryException;
+
+    public abstract void write(int address, byte value) throws MemoryException;
+
+    public void close() throws MemoryException {
+    }
+
+    public static ManagerDriver create(String version, int ramSize, int diskSize, int pageSize,
+                                       VmOptions options) throws MemoryException {
+        MainMemory memory=new MainMemory(ramSize);
+        if (version.equals("V0")) {
+            VirtualMemoryManagerV0 vm=new VirtualMemoryManagerV0(memory, options);
+            return new ManagerDriver() {
+                public byte read(int address) throws MemoryException {
+                    return vm.readByte(address);
+                }
+
+                public void write(int address, byte value) throws MemoryException {
+                    vm.writeByte(address, value);
+                }
+            };
+        }
+        BackingStore disk=new BackingStore(diskSize, pageSize, 1);
+        switch (version) {
+            case "V1": {
+                VirtualMemoryManagerV1 vm=new VirtualMemoryManagerV1(memory, disk, pageSize, options);
+                return new ManagerDriver() {
+                    public byte read(int address) throws MemoryException {
+                        return vm.readByte(address);
+                    }
+
+                    public void write(int address, byte value) throws MemoryException {
+                        vm.writeByte(address, value);
+                    }
+                };
+            }
+            case "V2": {
+                VirtualMemoryManagerV2 vm=new VirtualMemoryManagerV2(memory, disk, pageSize, options);
+                return new ManagerDriver() {
+                    public byte read(int address) throws MemoryException {
+                        return vm.readByte(address);
+                    }
+
+                    public void write(int address, byte value) throws MemoryException {
+                        vm.writeByte(address, value);
+                    }
+                };
+            }
+            case "V3": {
+                VirtualMemoryManagerV3 vm=new VirtualMemoryManagerV3(memory, disk, pageSize, options);
+                return new ManagerDriver() {
+                    public byte read(int address) throws MemoryException {
+                        return vm.readByte(address);
+                    }
+
+                    public void write(int address, byte value) throws MemoryException {
+                        vm.writeByte(address, value);
+                    }
+                };
+            }
+            case "V4": {
+                VirtualMemoryManagerV4 vm=new VirtualMemoryManagerV4(memory, disk, pageSize, options);
+                return new ManagerDriver() {
+                    public byte read(int address) throws MemoryException {
+                        return vm.readByte(address);
+                    }
+
+                    public void write(int address, byte value) throws MemoryException {
+                        vm.writeByte(address, value);
+                    }
+
+                    @Override
+                    public void close() throws MemoryException {
+                        vm.close();
+                    }
+                };
+            }
+            default:
+                throw new IllegalArgumentException("Unknown manager version: " + version);
+        }
+    }
+
+    public byte access(int[] addresses, int index) throws MemoryException {
+        int address=addresses[index & Workload.MASK];
+        if ((index & 3) == 0) {
+            write(address, (byte) index);
+            return 0;
+        }
+        return read(address);
+    }
+
+    public void warmUp(int[] addresses) throws MemoryException {
+        for (int i=0; i < addresses.length; i++) {
+            access(addresses, i);
+        }
+    }
+
+    public static synchronized void silenceOutput() {
+        if (savedOut == null) {
+            savedOut=System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+    }
+
+    public static synchronized void restoreOutput() {
+        if (savedOut != null) {
+            System.setOut(savedOut);
+            savedOut=null;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package bench.jmh;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public final class Workload {
+
+    public static final int LENGTH=1 << 20;
+    public static final int MASK=LENGTH - 1;
+
+    private static final double ZIPF_EXPONENT=0.99;
+    private static final int LOCALITY=90;
+
+    private Workload() {
+    }
+
+    public static int[] generate(String name, int ramSize, int diskSize, int pageSize, long seed) {
+        Random random=new Random(seed);
+        int[] addresses=new int[LENGTH];
+        switch (name.toUpperCase()) {
+            case "HIT":
+                for (int i=0; i < LENGTH; i++) {
+                    addresses[i]=random.nextInt(ramSize);
+                }
+                break;
+            case "SEQUENTIAL":
+                for (int i=0; i < LENGTH; i++) {
+                    addresses[i]=(int) ((i * 8L) % diskSize);
+                }
+                break;
+            case "UNIFORM":
+                for (int i=0; i < LENGTH; i++) {
+                    addresses[i]=random.nextInt(diskSize);
+                }
+                break;
+            case "ZIPF":
+                zipf(addresses, random, diskSize / pageSize, pageSize);
+                break;
+            case "LOCALITY":
+                for (int i=0; i < LENGTH; i++) {
+                    addresses[i]=locality(random, diskSize);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown workload: " + name);
+        }
+        return addresses;
+    }
+
+    private static void zipf(int[] addresses, Random random, int numPages, int pageSize) {
+        double[] cdf=new double[numPages];
+        double sum=0;
+        for (int rank=0; rank < numPages; rank++) {
+            sum+=1.0 / Math.pow(rank + 1, ZIPF_EXPONENT);
+            cdf[rank]=sum;
+        }
+        int[] pageOfRank=new int[numPages];
+        for (int i=0; i < numPages; i++) {
+            pageOfRank[i]=i;
+        }
+        for (int i=numPages - 1; i > 0; i--) {
+            int j=random.nextInt(i + 1);
+            int tmp=pageOfRank[i];
+            pageOfRank[i]=pageOfRank[j];
+            pageOfRank[j]=tmp;
+        }
+        for (int i=0; i < addresses.length; i++) {
+            int rank=Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            if (rank < 0) {
+                rank=Math.min(-rank - 1, numPages - 1);
+            }
+            addresses[i]=pageOfRank[rank] * pageSize + random.nextInt(pageSize);
+        }
+    }
+
+    private static int locality(Random random, int range) {
+        int address=range;
+        while (address == range) {
+            double distance=Math.min(100.0, Math.abs(random.nextGaussian() * (100 - LOCALITY)));
+            address=(int) (range * distance / 100.0);
+        }
+        return address;
+    }
+}
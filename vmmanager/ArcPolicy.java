@@ -0,0 +1,106 @@
+package vmmanager;
+
+public class ArcPolicy implements ReplacementPolicy {
+
+    private int capacity;
+    private int target=0;
+
+    private LruList t1;
+    private LruList t2;
+    private GhostList b1;
+    private GhostList b2;
+
+    private int[] framePage;
+    private int adaptedPage=-1;
+
+    public ArcPolicy(int numFrames) {
+        capacity=numFrames;
+        t1=new LruList(numFrames);
+        t2=new LruList(numFrames);
+        b1=new GhostList(numFrames);
+        b2=new GhostList(numFrames);
+        framePage=new int[numFrames];
+    }
+
+    public void onAccess(int page, int frame) {
+        t1.remove(frame);
+        t2.touch(frame);
+    }
+
+    public void onFault(int page, int frame) {
+        if (adaptedPage != page) {
+            adapt(page);
+            if (!b1.contains(page) && !b2.contains(page)) {
+                trimGhosts();
+            }
+        }
+        adaptedPage=-1;
+        framePage[frame]=page;
+        if (b1.remove(page) || b2.remove(page)) {
+            t2.touch(frame);
+        } else {
+            t1.touch(frame);
+        }
+    }
+
+    public int selectVictim(int incomingPage) {
+        adapt(incomingPage);
+        adaptedPage=incomingPage;
+        boolean inB2=b2.contains(incomingPage);
+        if (!b1.contains(incomingPage) && !inB2) {
+            if (t1.size() + b1.size() >= capacity) {
+                if (t1.size() < capacity) {
+                    b1.removeEldest();
+                } else {
+                    int frame=t1.eldest();
+                    t1.remove(frame);
+                    return frame;
+                }
+            } else if (t1.size() + t2.size() + b1.size() + b2.size() >= 2 * capacity) {
+                b2.removeEldest();
+            }
+        }
+        return replace(inB2);
+    }
+
+    public void onRemove(int frame) {
+        t1.remove(frame);
+        t2.remove(frame);
+    }
+
+    public String name() {
+        return "ARC";
+    }
+
+    private void adapt(int page) {
+        if (b1.contains(page)) {
+            int delta=Math.max(1, b2.size() / Math.max(1, b1.size()));
+            target=Math.min(target + delta, capacity);
+        } else if (b2.contains(page)) {
+            int delta=Math.max(1, b1.size() / Math.max(1, b2.size()));
+            target=Math.max(target - delta, 0);
+        }
+    }
+
+    private void trimGhosts() {
+        if (t1.size() + b1.size() >= capacity) {
+            b1.removeEldest();
+        } else if (t1.size() + t2.size() + b1.size() + b2.size() >= 2 * capacity) {
+            b2.removeEldest();
+        }
+    }
+
+    private int replace(boolean incomingInB2) {
+        int t1Size=t1.size();
+        if (t1Size > 0 && (t1Size > target || (incomingInB2 && t1Size == target) || t2.size() == 0)) {
+            int frame=t1.eldest();
+            t1.remove(frame);
+            b1.add(framePage[frame]);
+            return frame;
+        }
+        int frame=t2.eldest();
+        t2.remove(frame);
+        b2.add(framePage[frame]);
+        return frame;
+    }
+}
@@ -0,0 +1,137 @@
+package vmmanager;
+
+import vmsimulation.MainMemory;
+import vmsimulation.MemoryException;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class BlockAccess {
+
+    public interface FrameResolver {
+        int frameFor(int page) throws MemoryException;
+    }
+
+    public interface WriteListener {
+        void written(int frame) throws MemoryException;
+    }
+
+    private static final VarHandle INT=MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG=MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private RangeMemory memory;
+    private int pageSize;
+    private int offsetBits;
+    private int addressSpace;
+    private FrameResolver frames;
+    private WriteListener listener;
+    private byte[] word=new byte[8];
+
+    public BlockAccess(MainMemory memory, int pageSize, int addressSpace, FrameResolver frames) {
+        this(memory, pageSize, addressSpace, frames, frame -> {});
+    }
+
+    public BlockAccess(MainMemory memory, int pageSize, int addressSpace, FrameResolver frames, WriteListener listener) {
+        this.memory=RangeMemory.of(memory);
+        this.pageSize=pageSize;
+        this.offsetBits=Integer.numberOfTrailingZeros(pageSize);
+        this.addressSpace=addressSpace;
+        this.frames=frames;
+        this.listener=listener;
+    }
+
+    public void read(int virtualAddress, byte[] dst, int offset, int length) throws MemoryException {
+        checkRange(virtualAddress, length);
+        if (offset < 0 || offset > dst.length - length) {
+            throw new IndexOutOfBoundsException("Block of " + length + " bytes at " + offset + " does not fit in " + dst.length);
+        }
+        while (length > 0) {
+            int pageOffset=virtualAddress & (pageSize - 1);
+            int chunk=Math.min(length, pageSize - pageOffset);
+            int frame=frames.frameFor(virtualAddress >>> offsetBits);
+            memory.readRange(frame * pageSize + pageOffset, dst, offset, chunk);
+            virtualAddress+=chunk;
+            offset+=chunk;
+            length-=chunk;
+        }
+    }
+
+    public void write(int virtualAddress, byte[] src, int offset, int length) throws MemoryException {
+        checkRange(virtualAddress, length);
+        if (offset < 0 || offset > src.length - length) {
+            throw new IndexOutOfBoundsException("Block of " + length + " bytes at " + offset + " does not fit in " + src.length);
+        }
+        while (length > 0) {
+            int pageOffset=virtualAddress & (pageSize - 1);
+            int chunk=Math.min(length, pageSize - pageOffset);
+            int frame=frames.frameFor(virtualAddress >>> offsetBits);
+            memory.writeRange(frame * pageSize + pageOffset, src, offset, chunk);
+            listener.written(frame);
+            virtualAddress+=chunk;
+            offset+=chunk;
+            length-=chunk;
+        }
+    }
+
+    public void read(int virtualAddress, ByteBuffer dst) throws MemoryException {
+        int length=dst.remaining();
+        checkRange(virtualAddress, length);
+        int index=dst.position();
+        while (length > 0) {
+            int pageOffset=virtualAddress & (pageSize - 1);
+            int chunk=Math.min(length, pageSize - pageOffset);
+            int frame=frames.frameFor(virtualAddress >>> offsetBits);
+            memory.writeTo(dst, index, frame * pageSize + pageOffset, chunk);
+            virtualAddress+=chunk;
+            index+=chunk;
+            length-=chunk;
+        }
+        dst.position(index);
+    }
+
+    public void write(int virtualAddress, ByteBuffer src) throws MemoryException {
+        int length=src.remaining();
+        checkRange(virtualAddress, length);
+        int index=src.position();
+        while (length > 0) {
+            int pageOffset=virtualAddress & (pageSize - 1);
+            int chunk=Math.min(length, pageSize - pageOffset);
+            int frame=frames.frameFor(virtualAddress >>> offsetBits);
+            memory.readFrom(src, index, frame * pageSize + pageOffset, chunk);
+            listener.written(frame);
+            virtualAddress+=chunk;
+            index+=chunk;
+            length-=chunk;
+        }
+        src.position(index);
+    }
+
+    public int readInt(int virtualAddress) throws MemoryException {
+        read(virtualAddress, word, 0, 4);
+        return (int) INT.get(word, 0);
+    }
+
+    public void writeInt(int virtualAddress, int value) throws MemoryException {
+        INT.set(word, 0, value);
+        write(virtualAddress, word, 0, 4);
+    }
+
+    public long readLong(int virtualAddress) throws MemoryException {
+        read(virtualAddress, word, 0, 8);
+        return (long) LONG.get(word, 0);
+    }
+
+    public void writeLong(int virtualAddress, long value) throws MemoryException {
+        LONG.set(word, 0, value);
+        write(virtualAddress, word, 0, 8);
+    }
+
+    private void checkRange(int virtualAddress, int length) throws MemoryException {
+        if (virtualAddress < 0 || length < 0 || virtualAddress > addressSpace - length) {
+            throw new MemoryException("Virtual Memory: access of " + length + " bytes at " + virtualAddress
+                    + " is outside the " + addressSpace + " byte address space");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package vmmanager;
+
+public class ClockPolicy implements ReplacementPolicy {
+
+    private boolean[] resident;
+    private boolean[] referenced;
+    private int hand=0;
+    private int residentCount=0;
+
+    public ClockPolicy(int numFrames) {
+        resident=new boolean[numFrames];
+        referenced=new boolean[numFrames];
+    }
+
+    public void onAccess(int page, int frame) {
+        referenced[frame]=true;
+    }
+
+    public void onFault(int page, int frame) {
+        if (!resident[frame]) {
+            resident[frame]=true;
+            residentCount++;
+        }
+        referenced[frame]=true;
+    }
+
+    public int selectVictim(int incomingPage) {
+        if (residentCount == 0) {
+            return -1;
+        }
+        while (true) {
+            int frame=hand;
+            hand=(hand + 1) % resident.length;
+            if (!resident[frame]) {
+                continue;
+            }
+            if (referenced[frame]) {
+                referenced[frame]=false;
+                continue;
+            }
+            resident[frame]=false;
+            residentCount--;
+            return frame;
+        }
+    }
+
+    public void onRemove(int frame) {
+        if (resident[frame]) {
+            resident[frame]=false;
+            referenced[frame]=false;
+            residentCount--;
+        }
+    }
+
+    public String name() {
+        return "CLOCK";
+    }
+}
@@ -0,0 +1,275 @@
+package vmmanager;
+
+import vmsimulation.BackingStore;
+import vmsimulation.MemoryException;
+
+import java.util.Arrays;
+
+public class CompressedPageCache {
+
+    private static final byte ABSENT=0;
+    private static final byte SAME_FILLED=1;
+    private static final byte COMPRESSED=2;
+    private static final byte RAW=3;
+
+    private BackingStore disk;
+    private int pageSize;
+    private long budget;
+    private boolean acceptRaw;
+
+    private int numPages;
+    private IntIntMap index;
+    private int[] slotPage;
+    private byte[] kind;
+    private byte[][] data;
+    private int[] dataLength;
+    private byte[] fill;
+    private boolean[] dirty;
+    private int[] freeSlots;
+    private int freeCount=0;
+    private int usedSlots=0;
+    private LruList lru;
+    private long usedBytes=0;
+
+    private PageCompressor compressor=new PageCompressor();
+    private byte[] scratch;
+    private byte[] buffer;
+
+    private long storeCount=0;
+    private long rejectedCount=0;
+    private long sameFilledCount=0;
+    private long rawCount=0;
+    private long loadHitCount=0;
+    private long loadMissCount=0;
+    private long writtenBackCount=0;
+    private long originalBytes=0;
+    private long compressedBytes=0;
+
+    public CompressedPageCache(BackingStore disk, int pageSize, int numPages, long budget, boolean acceptRaw) {
+        this.disk=disk;
+        this.pageSize=pageSize;
+        this.budget=budget;
+        this.acceptRaw=acceptRaw;
+        this.numPages=numPages;
+        int capacity=(int) Math.min(numPages, Math.max(16, budget / pageSize));
+        index=new IntIntMap(capacity);
+        slotPage=new int[capacity];
+        kind=new byte[capacity];
+        data=new byte[capacity][];
+        dataLength=new int[capacity];
+        fill=new byte[capacity];
+        dirty=new boolean[capacity];
+        freeSlots=new int[capacity];
+        lru=new LruList(capacity);
+        scratch=new byte[pageSize];
+        buffer=new byte[pageSize];
+    }
+
+    public static CompressedPageCache create(VmOptions options, BackingStore disk, int pageSize, int numPages) {
+        if (options.compressedCacheBytes <= 0) {
+            return null;
+        }
+        return new CompressedPageCache(disk, pageSize, numPages, options.compressedCacheBytes, options.compressedCacheRaw);
+    }
+
+    public boolean store(int page, byte[] pageData) throws MemoryException {
+        invalidate(page);
+        int slot;
+        if (isSameFilled(pageData)) {
+            slot=allocateSlot(page);
+            kind[slot]=SAME_FILLED;
+            fill[slot]=pageData[0];
+            data[slot]=null;
+            sameFilledCount++;
+        } else {
+            int length=compressor.compress(pageData, pageSize, scratch);
+            byte type=COMPRESSED;
+            if (length < 0 || length >= pageSize) {
+                if (!acceptRaw) {
+                    rejectedCount++;
+                    return false;
+                }
+                length=pageSize;
+                type=RAW;
+            }
+            if (length > budget) {
+                rejectedCount++;
+                return false;
+            }
+            while (usedBytes + length > budget) {
+                evictEldest();
+            }
+            slot=allocateSlot(page);
+            kind[slot]=type;
+            byte[] entry=data[slot];
+            if (entry == null || entry.length < length || entry.length > 2 * length) {
+                entry=new byte[length];
+                data[slot]=entry;
+            }
+            System.arraycopy(type == RAW ? pageData : scratch, 0, entry, 0, length);
+            dataLength[slot]=length;
+            usedBytes+=length;
+            compressedBytes+=length;
+            if (type == RAW) {
+                rawCount++;
+            }
+        }
+        originalBytes+=pageSize;
+        dirty[slot]=true;
+        lru.touch(slot);
+        storeCount++;
+        return true;
+    }
+
+    public boolean load(int page, byte[] dst) {
+        int slot=index.get(page);
+        if (slot == -1) {
+            loadMissCount++;
+            return false;
+        }
+        decode(slot, dst);
+        lru.touch(slot);
+        loadHitCount++;
+        return true;
+    }
+
+    public boolean contains(int page) {
+        return index.containsKey(page);
+    }
+
+    public void invalidate(int page) {
+        int slot=index.remove(page);
+        if (slot == -1) {
+            return;
+        }
+        if (kind[slot] != SAME_FILLED) {
+            usedBytes-=dataLength[slot];
+        }
+        kind[slot]=ABSENT;
+        dirty[slot]=false;
+        lru.remove(slot);
+        freeSlots[freeCount++]=slot;
+    }
+
+    public void flush() throws MemoryException {
+        for (int slot=lru.eldest(); slot != -1; slot=lru.next(slot)) {
+            if (dirty[slot]) {
+                writeBack(slot);
+            }
+        }
+    }
+
+    public long getStoreCount() {
+        return storeCount;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public long getSameFilledCount() {
+        return sameFilledCount;
+    }
+
+    public long getRawCount() {
+        return rawCount;
+    }
+
+    public long getLoadHitCount() {
+        return loadHitCount;
+    }
+
+    public long getLoadMissCount() {
+        return loadMissCount;
+    }
+
+    public long getWrittenBackCount() {
+        return writtenBackCount;
+    }
+
+    public long getWrittenBackBytes() {
+        return writtenBackCount * pageSize;
+    }
+
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public int getEntryCount() {
+        return index.size();
+    }
+
+    public double getCompressionRatio() {
+        return compressedBytes == 0 ? 0 : (double) (originalBytes - sameFilledCount * pageSize) / compressedBytes;
+    }
+
+    public long getAvoidedTransferBytes() {
+        return (loadHitCount + storeCount - writtenBackCount) * pageSize;
+    }
+
+    private int allocateSlot(int page) {
+        int slot;
+        if (freeCount > 0) {
+            slot=freeSlots[--freeCount];
+        } else {
+            if (usedSlots == kind.length) {
+                grow();
+            }
+            slot=usedSlots++;
+        }
+        slotPage[slot]=page;
+        index.put(page, slot);
+        return slot;
+    }
+
+    private void grow() {
+        int capacity=Math.min(numPages, 2 * kind.length);
+        slotPage=Arrays.copyOf(slotPage, capacity);
+        kind=Arrays.copyOf(kind, capacity);
+        data=Arrays.copyOf(data, capacity);
+        dataLength=Arrays.copyOf(dataLength, capacity);
+        fill=Arrays.copyOf(fill, capacity);
+        dirty=Arrays.copyOf(dirty, capacity);
+        freeSlots=Arrays.copyOf(freeSlots, capacity);
+        lru.ensureCapacity(capacity);
+    }
+
+    private void evictEldest() throws MemoryException {
+        int slot=lru.eldest();
+        if (dirty[slot]) {
+            writeBack(slot);
+        }
+        invalidate(slotPage[slot]);
+    }
+
+    private void writeBack(int slot) throws MemoryException {
+        decode(slot, buffer);
+        disk.writePage(slotPage[slot], buffer);
+        dirty[slot]=false;
+        writtenBackCount++;
+    }
+
+    private void decode(int slot, byte[] dst) {
+        switch (kind[slot]) {
+            case SAME_FILLED:
+                Arrays.fill(dst, 0, pageSize, fill[slot]);
+                break;
+            case RAW:
+                System.arraycopy(data[slot], 0, dst, 0, pageSize);
+                break;
+            default:
+                PageCompressor.decompress(data[slot], dataLength[slot], dst);
+                break;
+        }
+    }
+
+    private boolean isSameFilled(byte[] pageData) {
+        byte first=pageData[0];
+        for (int i=1; i < pageSize; i++) {
+            if (pageData[i] != first) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
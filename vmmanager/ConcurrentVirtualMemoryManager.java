@@ -0,0 +1,303 @@
+package vmmanager;
+
+import vmsimulation.BackingStore;
+import vmsimulation.BitwiseToolbox;
+import vmsimulation.MainMemory;
+import vmsimulation.MemoryException;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConcurrentVirtualMemoryManager {
+
+    private static final long UNMAPPED=0xFFFFFFFFL;
+
+    MainMemory memory;
+    BackingStore disk;
+    Integer pageSize;
+
+    private int numPages;
+    private int numFrames;
+    private int offsetBits;
+    private int physAddrBits;
+    private int virtAddrBits;
+    private int stripes;
+
+    private AtomicLongArray entries;
+    private AtomicIntegerArray framePage;
+    private AtomicIntegerArray dirty;
+    private AtomicIntegerArray pins;
+    private ReentrantLock[] pageLocks;
+    private StripedFrameAllocator allocator;
+    private StripedClock clock;
+    private ThreadLocal<PageTransfer> transfers;
+    private AtomicInteger nextHome=new AtomicInteger();
+    private ThreadLocal<Integer> homes=ThreadLocal.withInitial(() -> nextHome.getAndIncrement());
+
+    private LongAdder pageFaultCount=new LongAdder();
+    private LongAdder transferredByteCount=new LongAdder();
+
+    public ConcurrentVirtualMemoryManager(MainMemory memory,
+                                          BackingStore disk,
+                                          Integer pageSize) throws MemoryException {
+        this(memory, disk, pageSize, VmOptions.fromSystemProperties());
+    }
+
+    public ConcurrentVirtualMemoryManager(MainMemory memory,
+                                          BackingStore disk,
+                                          Integer pageSize,
+                                          VmOptions options) throws MemoryException {
+        this.memory=memory;
+        this.disk=disk;
+        this.pageSize=pageSize;
+
+        int memSize=memory.size();
+        int diskSize=disk.size();
+
+        this.offsetBits=log2(pageSize);
+        this.physAddrBits=log2(memSize);
+        this.virtAddrBits=log2(diskSize);
+
+        this.numFrames=memSize / pageSize;
+        this.numPages=diskSize / pageSize;
+
+        int requested=options.stripes > 0 ? options.stripes : Runtime.getRuntime().availableProcessors();
+        stripes=Integer.highestOneBit(Math.max(1, Math.min(requested, numFrames)));
+
+        entries=new AtomicLongArray(numPages);
+        for (int p=0; p < numPages; p++) {
+            entries.set(p, UNMAPPED);
+        }
+        framePage=new AtomicIntegerArray(numFrames);
+        for (int f=0; f < numFrames; f++) {
+            framePage.set(f, -1);
+        }
+        dirty=new AtomicIntegerArray(numFrames);
+        pins=new AtomicIntegerArray(numFrames);
+        pageLocks=new ReentrantLock[Math.min(Integer.highestOneBit(numPages), stripes * 16)];
+        for (int i=0; i < pageLocks.length; i++) {
+            pageLocks[i]=new ReentrantLock();
+        }
+        allocator=new StripedFrameAllocator(numFrames, stripes);
+        clock=new StripedClock(numFrames, stripes);
+        transfers=ThreadLocal.withInitial(() -> new PageTransfer(memory, disk, pageSize));
+    }
+
+    private int log2(int x) {
+        return (int) (Math.log(x) / Math.log(2));
+    }
+
+    private int getPageNumber(int virtualAddress) {
+        return BitwiseToolbox.extractBits(virtualAddress, offsetBits, virtAddrBits - 1);
+    }
+
+    private int getOffset(int virtualAddress) {
+        return BitwiseToolbox.extractBits(virtualAddress, 0, offsetBits - 1);
+    }
+
+    private ReentrantLock pageLock(int pageNumber) {
+        return pageLocks[pageNumber & (pageLocks.length - 1)];
+    }
+
+    private int homeStripe() {
+        return homes.get() & (stripes - 1);
+    }
+
+    private static long nextEntry(long entry, int frame) {
+        return (((entry >>> 32) + 1) << 32) | (frame & UNMAPPED);
+    }
+
+    private void fault(int pageNumber) throws MemoryException {
+        ReentrantLock lock=pageLock(pageNumber);
+        lock.lock();
+        try {
+            long entry=entries.get(pageNumber);
+            if ((int) entry >= 0) {
+                return;
+            }
+            int home=homeStripe();
+            int frame=allocator.allocate(home);
+            if (frame == -1) {
+                frame=evict(home);
+            }
+            try {
+                transfers.get().load(pageNumber, frame);
+            } catch (MemoryException | RuntimeException e) {
+                allocator.release(frame);
+                throw e;
+            }
+            pageFaultCount.increment();
+            transferredByteCount.add(pageSize);
+            dirty.set(frame, 0);
+            clock.reference(frame);
+            framePage.set(frame, pageNumber);
+            entries.set(pageNumber, nextEntry(entry, frame));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int evict(int home) throws MemoryException {
+        while (true) {
+            int frame=clock.selectVictim(home, this::claim);
+            if (frame == -1) {
+                Thread.yield();
+                continue;
+            }
+            int victimPage=framePage.get(frame);
+            ReentrantLock lock=pageLock(victimPage);
+            try {
+                entries.set(victimPage, nextEntry(entries.get(victimPage), -1));
+                while (pins.get(frame) != 0) {
+                    Thread.onSpinWait();
+                }
+                if (dirty.get(frame) != 0) {
+                    try {
+                        transfers.get().store(victimPage, frame);
+                    } catch (MemoryException | RuntimeException e) {
+                        entries.set(victimPage, nextEntry(entries.get(victimPage), frame));
+                        throw e;
+                    }
+                    transferredByteCount.add(pageSize);
+                    dirty.set(frame, 0);
+                }
+                framePage.set(frame, -1);
+            } finally {
+                lock.unlock();
+            }
+            return frame;
+        }
+    }
+
+    private boolean claim(int frame) {
+        int page=framePage.get(frame);
+        if (page < 0) {
+            return false;
+        }
+        ReentrantLock lock=pageLock(page);
+        if (!lock.tryLock()) {
+            return false;
+        }
+        if (framePage.get(frame) != page) {
+            lock.unlock();
+            return false;
+        }
+        return true;
+    }
+
+    public void writeByte(Integer fourByteBinaryString, Byte value) throws MemoryException {
+        int va=fourByteBinaryString;
+        int pageNumber=getPageNumber(va);
+        int offset=getOffset(va);
+        while (true) {
+            long entry=entries.get(pageNumber);
+            int frame=(int) entry;
+            if (frame < 0) {
+                fault(pageNumber);
+                continue;
+            }
+            pins.incrementAndGet(frame);
+            try {
+                if (entries.get(pageNumber) == entry) {
+                    memory.writeByte(frame * pageSize + offset, value.byteValue());
+                    if (dirty.get(frame) == 0) {
+                        dirty.set(frame, 1);
+                    }
+                    clock.reference(frame);
+                    return;
+                }
+            } finally {
+                pins.decrementAndGet(frame);
+            }
+        }
+    }
+
+    public Byte readByte(Integer fourByteBinaryString) throws MemoryException {
+        int va=fourByteBinaryString;
+        int pageNumber=getPageNumber(va);
+        int offset=getOffset(va);
+        while (true) {
+            long entry=entries.get(pageNumber);
+            int frame=(int) entry;
+            if (frame < 0) {
+                fault(pageNumber);
+                continue;
+            }
+            byte value=memory.readByte(frame * pageSize + offset);
+            VarHandle.loadLoadFence();
+            if (entries.get(pageNumber) == entry) {
+                clock.reference(frame);
+                return value;
+            }
+        }
+    }
+
+    public void printMemoryContent() throws MemoryException {
+        int memSize=memory.size();
+        for (int addr=0; addr < memSize; addr++) {
+            String addrBits=BitwiseToolbox.getBitString(addr, physAddrBits - 1);
+            byte value=memory.readByte(addr);
+            System.out.println(addrBits + ": " + value);
+        }
+    }
+
+    public void printDiskContent() throws MemoryException {
+        int diskSize=disk.size();
+        int pages=diskSize / pageSize;
+        for (int p=0; p < pages; p++) {
+            byte[] pageData=disk.readPage(p);
+            System.out.print("PAGE " + p + ": ");
+            for (int i=0; i < pageSize; i++) {
+                System.out.print(pageData[i]);
+                if (i < pageSize - 1) System.out.print(",");
+            }
+            System.out.println();
+        }
+    }
+
+    public void writeBackAllPagesToDisk() throws MemoryException {
+        for (int frame=0; frame < numFrames; frame++) {
+            int page=framePage.get(frame);
+            if (page < 0) {
+                continue;
+            }
+            ReentrantLock lock=pageLock(page);
+            lock.lock();
+            try {
+                if (framePage.get(frame) == page && dirty.get(frame) != 0) {
+                    dirty.set(frame, 0);
+                    transfers.get().store(page, frame);
+                    transferredByteCount.add(pageSize);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public int getPageFaultCount() {
+        return pageFaultCount.intValue();
+    }
+
+    public int getTransferedByteCount() {
+        return (int) Math.min(getTransferredBytes(), Integer.MAX_VALUE);
+    }
+
+    public long getTransferredBytes() {
+        return transferredByteCount.sum();
+    }
+
+    public int getResidentPageCount() {
+        int count=0;
+        for (int frame=0; frame < numFrames; frame++) {
+            if (framePage.get(frame) >= 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,177 @@
+package vmmanager;
+
+import vmsimulation.BackingStore;
+import vmsimulation.BitwiseToolbox;
+import vmsimulation.MainMemory;
+import vmsimulation.MemoryException;
+
+import java.util.Random;
+
+public class DirectSimulator {
+
+    private static final String RULE="---------------------------------------------";
+
+    private VirtualMemoryManager vm;
+
+    public DirectSimulator(VirtualMemoryManager vm) {
+        this.vm=vm;
+    }
+
+    public DirectSimulator(String version, int ramSize, int diskSize, int pageSize, int seed)
+            throws MemoryException, ReflectiveOperationException {
+        MainMemory memory=new MainMemory(ramSize);
+        BackingStore disk=version.equals("V0") ? null : new BackingStore(diskSize, pageSize, seed);
+        this.vm=VirtualMemoryManager.load(version, memory, disk, pageSize, null);
+    }
+
+    public VirtualMemoryManager getManager() {
+        return vm;
+    }
+
+    public void simulate(int addressRange, int transactions, int seed, int locality) throws MemoryException {
+        if (locality < 0 || locality > 100) {
+            throw new MemoryException("Locality must be between 0 and 100");
+        }
+        Random random=new Random(seed);
+        boolean paged=vm.hasBackingStore();
+        int addressBits=log2(addressRange);
+        System.out.println("INITIAL RAM CONTENT: ALL ZEROS");
+        if (paged) {
+            System.out.println("INITIAL DISK CONTENT:");
+            vm.printDiskContent();
+        }
+        String kind=paged ? "virtual" : "physical";
+        System.out.println(RULE);
+        System.out.println("PERFORMING RANDOMLY GENERATED TRANSACTIONS...");
+        String readLabel="Read transaction for " + kind + " address: ";
+        String writeLabel="Write transaction for " + kind + " address: ";
+        for (int i=0; i < transactions; i++) {
+            int readAddress=generateAddress(random, addressRange, locality);
+            System.out.println(readLabel + BitwiseToolbox.getBitString(readAddress, addressBits - 1));
+            byte value=vm.read(readAddress);
+            value=(byte) (value + random.nextInt(255));
+            int writeAddress=generateAddress(random, addressRange, locality);
+            System.out.println(writeLabel + BitwiseToolbox.getBitString(writeAddress, addressBits - 1));
+            vm.write(writeAddress, value);
+        }
+        System.out.println("END OF MEMORY TRANSACTIONS");
+        System.out.println(RULE);
+        System.out.println("MEMORY CONTENT:");
+        vm.printMemoryContent();
+        System.out.println(RULE);
+        if (paged) {
+            System.out.println("WRITING PAGES BACK TO DISK...");
+            vm.writeBackAllPagesToDisk();
+            System.out.println("DISK CONTENT:");
+            vm.printDiskContent();
+            System.out.println(RULE);
+            System.out.println("NUM PAGE FAULTS: " + vm.getPageFaultCount());
+            System.out.println("NUM BYTES TRANSFERRED: " + vm.getTransferredBytes());
+            System.out.println(RULE);
+        }
+    }
+
+    private static int generateAddress(Random random, int addressRange, int locality) {
+        int address=addressRange;
+        while (address == addressRange) {
+            double distance=Math.min(100.0, Math.abs(random.nextGaussian() * (100 - locality)));
+            address=(int) (addressRange * distance / 100.0);
+        }
+        return address;
+    }
+
+    private static int log2(int x) {
+        return (int) (Math.log(x) / Math.log(2));
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: DirectSimulator <V0 | V1 | V2 | V3 | V4> [...]");
+            System.exit(1);
+        }
+        String version=args[0];
+        int expected;
+        switch (version) {
+            case "V0":
+                expected=4;
+                break;
+            case "V1":
+                expected=6;
+                break;
+            case "V2":
+            case "V3":
+            case "V4":
+                expected=7;
+                break;
+            default:
+                expected=-1;
+                break;
+        }
+        if (expected == -1) {
+            System.err.println("Usage: DirectSimulator <V0 | V1 | V2 | V3 | V4> [...]");
+            System.exit(1);
+        }
+        if (args.length != expected) {
+            System.err.println(version.equals("V0")
+                    ? "Usage: DirectSimulator V0 <RAM size> <num transactions> <rng seed>"
+                    : "Usage: DirectSimulator " + version + " <RAM size> <disk size> <page size> <num transactions> <rng seed>"
+                    + (expected == 7 ? " <locality>" : ""));
+            System.exit(1);
+        }
+        int ramSize=0;
+        int diskSize=0;
+        int pageSize=0;
+        int transactions=0;
+        int seed=0;
+        int locality=0;
+        try {
+            ramSize=Integer.parseInt(args[1]);
+            if (version.equals("V0")) {
+                diskSize=ramSize;
+                pageSize=ramSize;
+                transactions=Integer.parseInt(args[2]);
+                seed=Integer.parseInt(args[3]);
+            } else {
+                diskSize=Integer.parseInt(args[2]);
+                pageSize=Integer.parseInt(args[3]);
+                transactions=Integer.parseInt(args[4]);
+                seed=Integer.parseInt(args[5]);
+                locality=expected == 7 ? Integer.parseInt(args[6]) : 0;
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid command-line arguments");
+            System.exit(1);
+        }
+        if (pageSize > ramSize) {
+            System.err.println("The page size must be at most equal to the RAM size!");
+            System.exit(1);
+        }
+        if (diskSize < ramSize) {
+            System.err.println("The disk size must be at least equal to the RAM size!");
+            System.exit(1);
+        }
+        if (version.equals("V1") && diskSize != ramSize) {
+            System.err.println("For V1 the disk size must be equal to the RAM size!");
+            System.exit(1);
+        }
+        DirectSimulator simulator=null;
+        try {
+            simulator=new DirectSimulator(version, ramSize, diskSize, pageSize, seed);
+        } catch (MemoryException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        } catch (ReflectiveOperationException | IllegalArgumentException e) {
+            Throwable cause=e.getCause() != null ? e.getCause() : e;
+            System.err.println(cause instanceof MemoryException ? cause.getMessage()
+                    : "Dynamic class loading exception: " + cause.getMessage());
+            System.exit(1);
+        }
+        try {
+            simulator.simulate(diskSize, transactions, seed, locality);
+            simulator.getManager().close();
+        } catch (MemoryException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+}
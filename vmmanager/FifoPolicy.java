@@ -0,0 +1,35 @@
+package vmmanager;
+
+public class FifoPolicy implements ReplacementPolicy {
+
+    private LruList queue;
+
+    public FifoPolicy(int numFrames) {
+        queue=new LruList(numFrames);
+    }
+
+    public void onAccess(int page, int frame) {
+    }
+
+    public void onFault(int page, int frame) {
+        queue.touch(frame);
+    }
+
+    public int selectVictim(int incomingPage) {
+        int victim=queue.eldest();
+        queue.remove(victim);
+        return victim;
+    }
+
+    public void onRemove(int frame) {
+        queue.remove(frame);
+    }
+
+    public int[] residentOrder() {
+        return queue.order();
+    }
+
+    public String name() {
+        return "FIFO";
+    }
+}
@@ -0,0 +1,29 @@
+package vmmanager;
+
+public class FlatPageTable implements PageTable {
+
+    private int[] entries;
+
+    public FlatPageTable(int numPages) {
+        entries=new int[numPages];
+        for (int i=0; i < numPages; i++) {
+            entries[i]=-1;
+        }
+    }
+
+    public int lookup(int page) {
+        return entries[page];
+    }
+
+    public void map(int page, int frame) {
+        entries[page]=frame;
+    }
+
+    public void unmap(int page) {
+        entries[page]=-1;
+    }
+
+    public long footprintBytes() {
+        return 4L * entries.length;
+    }
+}
@@ -0,0 +1,98 @@
+package vmmanager;
+
+public class GhostList {
+
+    private static final int NIL=-1;
+
+    private int[] pages;
+    private int[] prev;
+    private int[] next;
+    private IntIntMap slots;
+
+    private int head=NIL;
+    private int tail=NIL;
+    private int freeSlot=0;
+    private int size=0;
+
+    public GhostList(int capacity) {
+        int slotCount=Math.max(1, capacity);
+        pages=new int[slotCount];
+        prev=new int[slotCount];
+        next=new int[slotCount];
+        slots=new IntIntMap(slotCount);
+        for (int i=0; i < slotCount; i++) {
+            next[i]=i + 1 < slotCount ? i + 1 : NIL;
+        }
+    }
+
+    public boolean contains(int page) {
+        return slots.containsKey(page);
+    }
+
+    public void add(int page) {
+        if (slots.containsKey(page)) {
+            remove(page);
+        }
+        if (freeSlot == NIL) {
+            removeEldest();
+        }
+        int slot=freeSlot;
+        freeSlot=next[slot];
+        pages[slot]=page;
+        prev[slot]=tail;
+        next[slot]=NIL;
+        if (tail == NIL) {
+            head=slot;
+        } else {
+            next[tail]=slot;
+        }
+        tail=slot;
+        slots.put(page, slot);
+        size++;
+    }
+
+    public boolean remove(int page) {
+        int slot=slots.remove(page);
+        if (slot == -1) {
+            return false;
+        }
+        unlink(slot);
+        return true;
+    }
+
+    public int removeEldest() {
+        if (head == NIL) {
+            return -1;
+        }
+        int page=pages[head];
+        slots.remove(page);
+        unlink(head);
+        return page;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return pages.length;
+    }
+
+    private void unlink(int slot) {
+        int p=prev[slot];
+        int n=next[slot];
+        if (p == NIL) {
+            head=n;
+        } else {
+            next[p]=n;
+        }
+        if (n == NIL) {
+            tail=p;
+        } else {
+            prev[n]=p;
+        }
+        next[slot]=freeSlot;
+        freeSlot=slot;
+        size--;
+    }
+}
@@ -0,0 +1,113 @@
+package vmmanager;
+
+public class IntIntMap {
+
+    private static final int EMPTY=-1;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size=0;
+
+    public IntIntMap(int expectedSize) {
+        int capacity=Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys=new int[capacity];
+        values=new int[capacity];
+        mask=capacity - 1;
+        for (int i=0; i < capacity; i++) {
+            keys[i]=EMPTY;
+        }
+    }
+
+    public int get(int key) {
+        int slot=indexOf(key);
+        return slot == -1 ? -1 : values[slot];
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) != -1;
+    }
+
+    public void put(int key, int value) {
+        int slot=hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot]=value;
+                return;
+            }
+            slot=(slot + 1) & mask;
+        }
+        keys[slot]=key;
+        values[slot]=value;
+        size++;
+        if (size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    public int remove(int key) {
+        int slot=indexOf(key);
+        if (slot == -1) {
+            return -1;
+        }
+        int value=values[slot];
+        keys[slot]=EMPTY;
+        size--;
+        int next=(slot + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home=hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot]=keys[next];
+                values[slot]=values[next];
+                keys[next]=EMPTY;
+                slot=next;
+            }
+            next=(next + 1) & mask;
+        }
+        return value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        for (int i=0; i < keys.length; i++) {
+            keys[i]=EMPTY;
+        }
+        size=0;
+    }
+
+    private int indexOf(int key) {
+        int slot=hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot=(slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void grow() {
+        int[] oldKeys=keys;
+        int[] oldValues=values;
+        keys=new int[oldKeys.length * 2];
+        values=new int[oldKeys.length * 2];
+        mask=keys.length - 1;
+        size=0;
+        for (int i=0; i < keys.length; i++) {
+            keys[i]=EMPTY;
+        }
+        for (int i=0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int hash(int key) {
+        int h=key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,81 @@
+package vmmanager;
+
+public class InvertedPageTable implements PageTable {
+
+    private static final int NIL=-1;
+
+    private int[] framePage;
+    private int[] chain;
+    private int[] anchors;
+    private int mask;
+
+    public InvertedPageTable(int numFrames) {
+        framePage=new int[numFrames];
+        chain=new int[numFrames];
+        int buckets=Integer.highestOneBit(Math.max(2, numFrames * 2 - 1)) << 1;
+        anchors=new int[buckets];
+        mask=buckets - 1;
+        for (int i=0; i < numFrames; i++) {
+            framePage[i]=NIL;
+            chain[i]=NIL;
+        }
+        for (int i=0; i < buckets; i++) {
+            anchors[i]=NIL;
+        }
+    }
+
+    public int lookup(int page) {
+        int frame=anchors[hash(page)];
+        while (frame != NIL) {
+            if (framePage[frame] == page) {
+                return frame;
+            }
+            frame=chain[frame];
+        }
+        return -1;
+    }
+
+    public void map(int page, int frame) {
+        if (framePage[frame] != NIL) {
+            unmap(framePage[frame]);
+        }
+        unmap(page);
+        int bucket=hash(page);
+        framePage[frame]=page;
+        chain[frame]=anchors[bucket];
+        anchors[bucket]=frame;
+    }
+
+    public void unmap(int page) {
+        int bucket=hash(page);
+        int previous=NIL;
+        int frame=anchors[bucket];
+        while (frame != NIL) {
+            if (framePage[frame] == page) {
+                if (previous == NIL) {
+                    anchors[bucket]=chain[frame];
+                } else {
+                    chain[previous]=chain[frame];
+                }
+                framePage[frame]=NIL;
+                chain[frame]=NIL;
+                return;
+            }
+            previous=frame;
+            frame=chain[frame];
+        }
+    }
+
+    public int pageInFrame(int frame) {
+        return framePage[frame];
+    }
+
+    public long footprintBytes() {
+        return 4L * (framePage.length + chain.length + anchors.length);
+    }
+
+    private int hash(int page) {
+        int h=page * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
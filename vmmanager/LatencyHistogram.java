@@ -0,0 +1,105 @@
+package vmmanager;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS=7;
+    private static final int SUB_BUCKET_COUNT=1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF=SUB_BUCKET_COUNT / 2;
+    private static final int MAX_MAGNITUDE=40;
+    private static final long MAX_VALUE=(1L << (MAX_MAGNITUDE + 1)) - 1;
+
+    private AtomicLongArray counts;
+    private LongAdder totalCount=new LongAdder();
+    private LongAdder totalValue=new LongAdder();
+    private AtomicLong minValue=new AtomicLong(Long.MAX_VALUE);
+    private AtomicLong maxValue=new AtomicLong(0);
+
+    public LatencyHistogram() {
+        counts=new AtomicLongArray(indexOf(MAX_VALUE) + 1);
+    }
+
+    public void record(long value) {
+        if (value < 0) {
+            value=0;
+        }
+        counts.incrementAndGet(indexOf(Math.min(value, MAX_VALUE)));
+        totalCount.increment();
+        totalValue.add(value);
+        long min;
+        while (value < (min=minValue.get()) && !minValue.compareAndSet(min, value)) {
+        }
+        long max;
+        while (value > (max=maxValue.get()) && !maxValue.compareAndSet(max, value)) {
+        }
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public long getMin() {
+        return getCount() == 0 ? 0 : minValue.get();
+    }
+
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    public double getMean() {
+        long count=getCount();
+        return count == 0 ? 0 : (double) totalValue.sum() / count;
+    }
+
+    public long getValueAtPercentile(double percentile) {
+        long count=0;
+        long[] snapshot=new long[counts.length()];
+        for (int i=0; i < snapshot.length; i++) {
+            snapshot[i]=counts.get(i);
+            count+=snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long target=Math.max(1, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * count));
+        long seen=0;
+        for (int i=0; i < snapshot.length; i++) {
+            seen+=snapshot[i];
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    public void reset() {
+        for (int i=0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalValue.reset();
+        minValue.set(Long.MAX_VALUE);
+        maxValue.set(0);
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift=63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        int subBucket=(int) (value >>> shift);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (subBucket - SUB_BUCKET_HALF);
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift=(index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+        long subBucket=(index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
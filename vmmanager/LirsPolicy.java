@@ -0,0 +1,228 @@
+package vmmanager;
+
+public class LirsPolicy implements ReplacementPolicy {
+
+    private static final int NIL=-1;
+
+    private static final byte LIR=0;
+    private static final byte HIR=1;
+    private static final byte NON_RESIDENT=2;
+
+    private static final int STACK=0;
+    private static final int QUEUE=1;
+    private static final int GHOSTS=2;
+
+    private int lirLimit;
+    private int ghostLimit;
+    private int lirCount=0;
+
+    private int[] pages;
+    private byte[] state;
+    private int[][] prev;
+    private int[][] next;
+    private boolean[][] member;
+    private int[] heads={NIL, NIL, NIL};
+    private int[] tails={NIL, NIL, NIL};
+    private int[] sizes=new int[3];
+
+    private IntIntMap pageSlot;
+    private int[] frameSlot;
+    private int[] slotFrame;
+    private int[] freeNext;
+    private int freeSlot;
+
+    public LirsPolicy(int numFrames) {
+        int hirLimit=Math.max(1, numFrames / 100);
+        lirLimit=Math.max(0, numFrames - hirLimit);
+        ghostLimit=Math.max(1, 2 * numFrames);
+        int slotCount=numFrames + ghostLimit + 1;
+        pages=new int[slotCount];
+        state=new byte[slotCount];
+        prev=new int[3][slotCount];
+        next=new int[3][slotCount];
+        member=new boolean[3][slotCount];
+        slotFrame=new int[slotCount];
+        freeNext=new int[slotCount];
+        for (int i=0; i < slotCount; i++) {
+            freeNext[i]=i + 1 < slotCount ? i + 1 : NIL;
+        }
+        freeSlot=0;
+        pageSlot=new IntIntMap(slotCount);
+        frameSlot=new int[numFrames];
+        for (int i=0; i < numFrames; i++) {
+            frameSlot[i]=NIL;
+        }
+    }
+
+    public void onAccess(int page, int frame) {
+        int slot=frameSlot[frame];
+        if (state[slot] == LIR) {
+            boolean wasBottom=slot == heads[STACK];
+            moveToTop(STACK, slot);
+            if (wasBottom) {
+                prune();
+            }
+        } else if (member[STACK][slot]) {
+            unlink(QUEUE, slot);
+            promote(slot);
+        } else {
+            moveToTop(STACK, slot);
+            moveToTop(QUEUE, slot);
+        }
+    }
+
+    public void onFault(int page, int frame) {
+        int slot=pageSlot.get(page);
+        if (slot != NIL && state[slot] == NON_RESIDENT) {
+            unlink(GHOSTS, slot);
+        } else {
+            slot=allocate(page);
+        }
+        frameSlot[frame]=slot;
+        slotFrame[slot]=frame;
+        if (lirCount < lirLimit || member[STACK][slot]) {
+            promote(slot);
+        } else {
+            state[slot]=HIR;
+            moveToTop(STACK, slot);
+            moveToTop(QUEUE, slot);
+        }
+    }
+
+    public int selectVictim(int incomingPage) {
+        if (sizes[QUEUE] == 0) {
+            demoteBottom();
+        }
+        int slot=heads[QUEUE];
+        if (slot == NIL) {
+            return -1;
+        }
+        unlink(QUEUE, slot);
+        int frame=slotFrame[slot];
+        frameSlot[frame]=NIL;
+        if (member[STACK][slot]) {
+            state[slot]=NON_RESIDENT;
+            moveToTop(GHOSTS, slot);
+            if (sizes[GHOSTS] > ghostLimit) {
+                release(heads[GHOSTS]);
+            }
+        } else {
+            release(slot);
+        }
+        return frame;
+    }
+
+    public void onRemove(int frame) {
+        int slot=frameSlot[frame];
+        if (slot == NIL) {
+            return;
+        }
+        frameSlot[frame]=NIL;
+        if (state[slot] == LIR) {
+            lirCount--;
+        }
+        release(slot);
+        prune();
+    }
+
+    public String name() {
+        return "LIRS";
+    }
+
+    private void promote(int slot) {
+        if (state[slot] != LIR) {
+            state[slot]=LIR;
+            lirCount++;
+        }
+        moveToTop(STACK, slot);
+        while (lirCount > lirLimit && demoteBottom()) {
+        }
+    }
+
+    private boolean demoteBottom() {
+        prune();
+        int bottom=heads[STACK];
+        if (bottom == NIL) {
+            return false;
+        }
+        state[bottom]=HIR;
+        lirCount--;
+        unlink(STACK, bottom);
+        moveToTop(QUEUE, bottom);
+        prune();
+        return true;
+    }
+
+    private void prune() {
+        int bottom=heads[STACK];
+        while (bottom != NIL && state[bottom] != LIR) {
+            unlink(STACK, bottom);
+            if (state[bottom] == NON_RESIDENT) {
+                release(bottom);
+            }
+            bottom=heads[STACK];
+        }
+    }
+
+    private int allocate(int page) {
+        if (freeSlot == NIL) {
+            release(heads[GHOSTS]);
+        }
+        int slot=freeSlot;
+        freeSlot=freeNext[slot];
+        pages[slot]=page;
+        state[slot]=HIR;
+        pageSlot.put(page, slot);
+        return slot;
+    }
+
+    private void release(int slot) {
+        for (int list=0; list < 3; list++) {
+            unlink(list, slot);
+        }
+        pageSlot.remove(pages[slot]);
+        freeNext[slot]=freeSlot;
+        freeSlot=slot;
+    }
+
+    private void moveToTop(int list, int slot) {
+        if (member[list][slot]) {
+            if (slot == tails[list]) {
+                return;
+            }
+            unlink(list, slot);
+        }
+        prev[list][slot]=tails[list];
+        next[list][slot]=NIL;
+        if (tails[list] == NIL) {
+            heads[list]=slot;
+        } else {
+            next[list][tails[list]]=slot;
+        }
+        tails[list]=slot;
+        member[list][slot]=true;
+        sizes[list]++;
+    }
+
+    private void unlink(int list, int slot) {
+        if (!member[list][slot]) {
+            return;
+        }
+        int p=prev[list][slot];
+        int n=next[list][slot];
+        if (p == NIL) {
+            heads[list]=n;
+        } else {
+            next[list][p]=n;
+        }
+        if (n == NIL) {
+            tails[list]=p;
+        } else {
+            prev[list][n]=p;
+        }
+        prev[list][slot]=NIL;
+        next[list][slot]=NIL;
+        member[list][slot]=false;
+        sizes[list]--;
+    }
+}
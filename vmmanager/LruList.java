@@ -0,0 +1,121 @@
+package vmmanager;
+
+import java.util.Arrays;
+
+public class LruList {
+
+    private static final int NIL=-1;
+
+    private int[] prev;
+    private int[] next;
+    private boolean[] linked;
+
+    private int head=NIL;
+    private int tail=NIL;
+    private int size=0;
+
+    public LruList(int capacity) {
+        prev=new int[capacity];
+        next=new int[capacity];
+        linked=new boolean[capacity];
+        for (int i=0; i < capacity; i++) {
+            prev[i]=NIL;
+            next[i]=NIL;
+        }
+    }
+
+    public void touch(int frame) {
+        if (linked[frame]) {
+            if (frame == tail) {
+                return;
+            }
+            unlink(frame);
+        }
+        append(frame);
+    }
+
+    public void remove(int frame) {
+        if (linked[frame]) {
+            unlink(frame);
+        }
+    }
+
+    public int eldest() {
+        return head;
+    }
+
+    public int newest() {
+        return tail;
+    }
+
+    public int next(int frame) {
+        return next[frame];
+    }
+
+    public int[] order() {
+        int[] order=new int[size];
+        int i=0;
+        for (int frame=head; frame != NIL; frame=next[frame]) {
+            order[i++]=frame;
+        }
+        return order;
+    }
+
+    public boolean contains(int frame) {
+        return linked[frame];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return linked.length;
+    }
+
+    public void ensureCapacity(int capacity) {
+        int old=linked.length;
+        if (capacity <= old) {
+            return;
+        }
+        prev=Arrays.copyOf(prev, capacity);
+        next=Arrays.copyOf(next, capacity);
+        linked=Arrays.copyOf(linked, capacity);
+        for (int i=old; i < capacity; i++) {
+            prev[i]=NIL;
+            next[i]=NIL;
+        }
+    }
+
+    private void append(int frame) {
+        prev[frame]=tail;
+        next[frame]=NIL;
+        if (tail == NIL) {
+            head=frame;
+        } else {
+            next[tail]=frame;
+        }
+        tail=frame;
+        linked[frame]=true;
+        size++;
+    }
+
+    private void unlink(int frame) {
+        int p=prev[frame];
+        int n=next[frame];
+        if (p == NIL) {
+            head=n;
+        } else {
+            next[p]=n;
+        }
+        if (n == NIL) {
+            tail=p;
+        } else {
+            prev[n]=p;
+        }
+        prev[frame]=NIL;
+        next[frame]=NIL;
+        linked[frame]=false;
+        size--;
+    }
+}
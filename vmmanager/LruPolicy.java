@@ -0,0 +1,36 @@
+package vmmanager;
+
+public class LruPolicy implements ReplacementPolicy {
+
+    private LruList lru;
+
+    public LruPolicy(int numFrames) {
+        lru=new LruList(numFrames);
+    }
+
+    public void onAccess(int page, int frame) {
+        lru.touch(frame);
+    }
+
+    public void onFault(int page, int frame) {
+        lru.touch(frame);
+    }
+
+    public int selectVictim(int incomingPage) {
+        int victim=lru.eldest();
+        lru.remove(victim);
+        return victim;
+    }
+
+    public void onRemove(int frame) {
+        lru.remove(frame);
+    }
+
+    public int[] residentOrder() {
+        return lru.order();
+    }
+
+    public String name() {
+        return "LRU";
+    }
+}
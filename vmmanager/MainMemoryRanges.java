@@ -0,0 +1,86 @@
+package vmmanager;
+
+import vmsimulation.MainMemory;
+import vmsimulation.MemoryException;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+
+public class MainMemoryRanges implements RangeMemory {
+
+    private MainMemory memory;
+    private byte[] content;
+
+    public MainMemoryRanges(MainMemory memory) {
+        this.memory=memory;
+        this.content=backingArray(memory);
+    }
+
+    public void readRange(int address, byte[] dst, int offset, int length) throws MemoryException {
+        if (content == null) {
+            for (int i=0; i < length; i++) {
+                dst[offset + i]=memory.readByte(address + i);
+            }
+            return;
+        }
+        if (address < 0 || length < 0 || address > content.length - length) {
+            throw new MemoryException("Main Memory: Bus error on a read");
+        }
+        System.arraycopy(content, address, dst, offset, length);
+    }
+
+    public void writeRange(int address, byte[] src, int offset, int length) throws MemoryException {
+        if (content == null) {
+            for (int i=0; i < length; i++) {
+                memory.writeByte(address + i, src[offset + i]);
+            }
+            return;
+        }
+        if (address < 0 || length < 0 || address > content.length - length) {
+            throw new MemoryException("Main Memory: Bus error on a write");
+        }
+        System.arraycopy(src, offset, content, address, length);
+    }
+
+    @Override
+    public void readFrom(ByteBuffer src, int srcIndex, int address, int length) throws MemoryException {
+        if (content == null) {
+            RangeMemory.super.readFrom(src, srcIndex, address, length);
+            return;
+        }
+        if (address < 0 || length < 0 || address > content.length - length) {
+            throw new MemoryException("Main Memory: Bus error on a write");
+        }
+        src.get(srcIndex, content, address, length);
+    }
+
+    @Override
+    public void writeTo(ByteBuffer dst, int dstIndex, int address, int length) throws MemoryException {
+        if (content == null) {
+            RangeMemory.super.writeTo(dst, dstIndex, address, length);
+            return;
+        }
+        if (address < 0 || length < 0 || address > content.length - length) {
+            throw new MemoryException("Main Memory: Bus error on a read");
+        }
+        dst.put(dstIndex, content, address, length);
+    }
+
+    public boolean isDirect() {
+        return content != null;
+    }
+
+    private static byte[] backingArray(MainMemory memory) {
+        if (memory.getClass() != MainMemory.class) {
+            return null;
+        }
+        try {
+            Field field=MainMemory.class.getDeclaredField("content");
+            field.setAccessible(true);
+            byte[] content=(byte[]) field.get(memory);
+            return content.length == memory.size() ? content : null;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
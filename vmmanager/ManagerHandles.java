@@ -0,0 +1,190 @@
+package vmmanager;
+
+import vmsimulation.MemoryException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+public class ManagerHandles implements VirtualMemoryManager {
+
+    private Object vm;
+    private MethodHandle readByte;
+    private MethodHandle writeByte;
+    private MethodHandle printMemoryContent;
+    private MethodHandle printDiskContent;
+    private MethodHandle writeBackAllPagesToDisk;
+    private MethodHandle getPageFaultCount;
+    private MethodHandle getTransferedByteCount;
+    private MethodHandle getTransferredBytes;
+    private MethodHandle close;
+
+    public ManagerHandles(Object vm) {
+        this.vm=vm;
+        MethodHandles.Lookup lookup=MethodHandles.publicLookup();
+        try {
+            for (Method method : vm.getClass().getDeclaredMethods()) {
+                switch (method.getName()) {
+                    case "readByte":
+                        readByte=lookup.unreflect(method).asType(MethodType.methodType(byte.class, Object.class, int.class));
+                        break;
+                    case "writeByte":
+                        writeByte=lookup.unreflect(method).asType(MethodType.methodType(void.class, Object.class, int.class, byte.class));
+                        break;
+                    case "printMemoryContent":
+                        printMemoryContent=lookup.unreflect(method).asType(MethodType.methodType(void.class, Object.class));
+                        break;
+                    case "printDiskContent":
+                        printDiskContent=lookup.unreflect(method).asType(MethodType.methodType(void.class, Object.class));
+                        break;
+                    case "writeBackAllPagesToDisk":
+                        writeBackAllPagesToDisk=lookup.unreflect(method).asType(MethodType.methodType(void.class, Object.class));
+                        break;
+                    case "getPageFaultCount":
+                        getPageFaultCount=lookup.unreflect(method).asType(MethodType.methodType(int.class, Object.class));
+                        break;
+                    case "getTransferedByteCount":
+                        getTransferedByteCount=lookup.unreflect(method).asType(MethodType.methodType(int.class, Object.class));
+                        break;
+                    case "getTransferredBytes":
+                        getTransferredBytes=lookup.unreflect(method).asType(MethodType.methodType(long.class, Object.class));
+                        break;
+                    case "close":
+                        close=lookup.unreflect(method).asType(MethodType.methodType(void.class, Object.class));
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException(vm.getClass().getSimpleName() + " is not accessible: " + e.getMessage());
+        }
+        if (readByte == null || writeByte == null || printMemoryContent == null) {
+            throw new IllegalArgumentException(vm.getClass().getSimpleName()
+                    + " must implement readByte(), writeByte() and printMemoryContent()");
+        }
+    }
+
+    public Byte readByte(Integer fourByteBinaryString) throws MemoryException {
+        return read(fourByteBinaryString);
+    }
+
+    public void writeByte(Integer fourByteBinaryString, Byte value) throws MemoryException {
+        write(fourByteBinaryString, value);
+    }
+
+    public byte read(int virtualAddress) throws MemoryException {
+        try {
+            return (byte) readByte.invokeExact(vm, virtualAddress);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    public void write(int virtualAddress, byte value) throws MemoryException {
+        try {
+            writeByte.invokeExact(vm, virtualAddress, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    public void printMemoryContent() throws MemoryException {
+        try {
+            printMemoryContent.invokeExact(vm);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public boolean hasBackingStore() {
+        return printDiskContent != null;
+    }
+
+    @Override
+    public void printDiskContent() throws MemoryException {
+        if (printDiskContent == null) {
+            return;
+        }
+        try {
+            printDiskContent.invokeExact(vm);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public void writeBackAllPagesToDisk() throws MemoryException {
+        if (writeBackAllPagesToDisk == null) {
+            return;
+        }
+        try {
+            writeBackAllPagesToDisk.invokeExact(vm);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public int getPageFaultCount() {
+        if (getPageFaultCount == null) {
+            return 0;
+        }
+        try {
+            return (int) getPageFaultCount.invokeExact(vm);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int getTransferedByteCount() {
+        if (getTransferedByteCount == null) {
+            return 0;
+        }
+        try {
+            return (int) getTransferedByteCount.invokeExact(vm);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public long getTransferredBytes() {
+        if (getTransferredBytes == null) {
+            return getTransferedByteCount();
+        }
+        try {
+            return (long) getTransferredBytes.invokeExact(vm);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() throws MemoryException {
+        if (close == null) {
+            return;
+        }
+        try {
+            close.invokeExact(vm);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private static MemoryException rethrow(Throwable e) {
+        if (e instanceof MemoryException) {
+            return (MemoryException) e;
+        }
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        throw new IllegalStateException(e);
+    }
+}
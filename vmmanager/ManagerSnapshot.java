@@ -0,0 +1,319 @@
+package vmmanager;
+
+import vmsimulation.BackingStore;
+import vmsimulation.MainMemory;
+import vmsimulation.MemoryException;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class ManagerSnapshot {
+
+    static final int MAGIC=0x564D534E;
+    static final int VERSION=2;
+    static final int HEADER_SIZE=32;
+    static final int MAX_POLICY_NAME=64;
+    static final int COUNTERS_SIZE=16;
+
+    static class State {
+
+        int manager;
+        MainMemory memory;
+        BackingStore disk;
+        int pageSize;
+        int numPages;
+        int numFrames;
+        PageTable pageTable;
+        Tlb tlb;
+        int[] framePage;
+        boolean[] dirty;
+        ReplacementPolicy policy;
+        int nextFreeFrame;
+        int pageFaultCount;
+        long transferredBytes;
+
+        State(int manager, MainMemory memory, BackingStore disk, int pageSize, int numPages, int numFrames) {
+            this.manager=manager;
+            this.memory=memory;
+            this.disk=disk;
+            this.pageSize=pageSize;
+            this.numPages=numPages;
+            this.numFrames=numFrames;
+        }
+    }
+
+    private MappedByteBuffer buffer;
+    private RangeMemory memory;
+    private int pageSize;
+    private int resident;
+    private boolean writable;
+
+    private ManagerSnapshot(MappedByteBuffer buffer, MainMemory memory, int pageSize, int resident, boolean writable) {
+        this.buffer=buffer;
+        this.memory=RangeMemory.of(memory);
+        this.pageSize=pageSize;
+        this.resident=resident;
+        this.writable=writable;
+    }
+
+    static void save(Path file, State state) throws MemoryException {
+        int[] order=residentOrder(state.policy);
+        int resident=0;
+        for (int frame=0; frame < state.numFrames; frame++) {
+            if (state.framePage[frame] != -1) {
+                resident++;
+            }
+        }
+        if (order.length != resident) {
+            throw new MemoryException("Snapshot: the replacement order does not cover the resident frames");
+        }
+        ManagerSnapshot snapshot=create(file, state.memory, state.manager, state.policy.name(), state.pageSize,
+                state.numPages, state.numFrames, resident);
+        snapshot.putInt(state.nextFreeFrame);
+        snapshot.putInt(state.pageFaultCount);
+        snapshot.putLong(state.transferredBytes);
+        snapshot.putInts(state.framePage);
+        snapshot.putFlags(state.dirty, state.numFrames);
+        snapshot.putInts(order);
+        for (int frame : order) {
+            snapshot.putFrame(frame);
+        }
+        snapshot.putDisk(state.disk, state.numPages);
+        snapshot.finish();
+    }
+
+    static void restore(Path file, State state) throws MemoryException {
+        residentOrder(state.policy);
+        ManagerSnapshot snapshot=open(file, state.memory, state.manager, state.policy.name(), state.pageSize,
+                state.numPages, state.numFrames);
+        int nextFreeFrame=snapshot.getInt();
+        int pageFaultCount=snapshot.getInt();
+        long transferredBytes=snapshot.getLong();
+        int[] framePage=new int[state.numFrames];
+        snapshot.getInts(framePage);
+        boolean[] dirty=new boolean[state.numFrames];
+        snapshot.getFlags(dirty, state.numFrames);
+        int[] order=new int[snapshot.resident];
+        snapshot.getInts(order);
+        if (nextFreeFrame < 0 || nextFreeFrame > state.numFrames || pageFaultCount < 0 || transferredBytes < 0) {
+            throw new MemoryException("Snapshot: " + file + " has out of range counters");
+        }
+        checkFrames(state, nextFreeFrame, framePage, order);
+
+        for (int frame=0; frame < state.numFrames; frame++) {
+            if (state.framePage[frame] != -1) {
+                state.pageTable.unmap(state.framePage[frame]);
+            }
+        }
+        state.tlb.flush();
+        state.nextFreeFrame=nextFreeFrame;
+        state.pageFaultCount=pageFaultCount;
+        state.transferredBytes=transferredBytes;
+        System.arraycopy(framePage, 0, state.framePage, 0, state.numFrames);
+        if (state.dirty != null) {
+            System.arraycopy(dirty, 0, state.dirty, 0, state.numFrames);
+        }
+        state.policy=ReplacementPolicy.create(state.policy.name(), state.numFrames);
+        for (int frame : order) {
+            snapshot.getFrame(frame);
+            state.policy.onFault(framePage[frame], frame);
+        }
+        for (int frame=0; frame < state.numFrames; frame++) {
+            if (framePage[frame] != -1) {
+                state.pageTable.map(framePage[frame], frame);
+            }
+        }
+        snapshot.getDisk(state.disk, state.numPages);
+        snapshot.finish();
+    }
+
+    private static void checkFrames(State state, int nextFreeFrame, int[] framePage, int[] order) throws MemoryException {
+        boolean[] mapped=new boolean[state.numPages];
+        int resident=0;
+        for (int frame=0; frame < state.numFrames; frame++) {
+            int page=framePage[frame];
+            if (page == -1) {
+                continue;
+            }
+            if (page < 0 || page >= state.numPages) {
+                throw new MemoryException("Snapshot: frame " + frame + " holds page " + page + ", outside the "
+                        + state.numPages + " page address space");
+            }
+            if (mapped[page] || frame >= nextFreeFrame) {
+                throw new MemoryException("Snapshot: frame " + frame + " holds page " + page + " inconsistently");
+            }
+            mapped[page]=true;
+            resident++;
+        }
+        if (order.length != resident) {
+            throw new MemoryException("Snapshot: the replacement order does not cover the resident frames");
+        }
+        boolean[] ordered=new boolean[state.numFrames];
+        for (int frame : order) {
+            if (frame < 0 || frame >= state.numFrames) {
+                throw new MemoryException("Snapshot: replacement order names frame " + frame + ", outside the "
+                        + state.numFrames + " frames of memory");
+            }
+            if (framePage[frame] == -1 || ordered[frame]) {
+                throw new MemoryException("Snapshot: replacement order lists frame " + frame + " inconsistently");
+            }
+            ordered[frame]=true;
+        }
+    }
+
+    private static int[] residentOrder(ReplacementPolicy policy) throws MemoryException {
+        int[] order=policy.residentOrder();
+        if (order == null) {
+            throw new MemoryException("Snapshots cannot be combined with the " + policy.name() + " policy");
+        }
+        return order;
+    }
+
+    public static long size(String policy, int pageSize, int numPages, int numFrames, int resident) {
+        return HEADER_SIZE + policy.getBytes(StandardCharsets.UTF_8).length + COUNTERS_SIZE + 5L * numFrames + 4L * resident + (long) resident * pageSize
+                + (long) numPages * pageSize;
+    }
+
+    private static ManagerSnapshot create(Path file, MainMemory memory, int manager, String policy, int pageSize,
+                                          int numPages, int numFrames, int resident) throws MemoryException {
+        byte[] policyName=policy.getBytes(StandardCharsets.UTF_8);
+        long size=size(policy, pageSize, numPages, numFrames, resident);
+        if (size > Integer.MAX_VALUE) {
+            throw new MemoryException("Snapshot: image of " + size + " bytes is too large to map");
+        }
+        try (FileChannel channel=FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer=channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(manager).putInt(pageSize).putInt(numPages)
+                    .putInt(numFrames).putInt(resident).putInt(policyName.length).put(policyName);
+            return new ManagerSnapshot(buffer, memory, pageSize, resident, true);
+        } catch (IOException e) {
+            throw new MemoryException("Snapshot: cannot write " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static ManagerSnapshot open(Path file, MainMemory memory, int manager, String policy, int pageSize,
+                                        int numPages, int numFrames) throws MemoryException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel=FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new MemoryException("Snapshot: " + file + " is not a snapshot file");
+            }
+            buffer=channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new MemoryException("Snapshot: cannot read " + file + ": " + e.getMessage());
+        }
+        if (buffer.getInt() != MAGIC) {
+            throw new MemoryException("Snapshot: " + file + " is not a snapshot file");
+        }
+        if (buffer.getInt() != VERSION) {
+            throw new MemoryException("Snapshot: unsupported snapshot version");
+        }
+        int savedManager=buffer.getInt();
+        if (savedManager != manager) {
+            throw new MemoryException("Snapshot: image was taken from V" + savedManager + ", not V" + manager);
+        }
+        if (buffer.getInt() != pageSize || buffer.getInt() != numPages || buffer.getInt() != numFrames) {
+            throw new MemoryException("Snapshot: image geometry does not match this manager");
+        }
+        int resident=buffer.getInt();
+        int policyLength=buffer.getInt();
+        if (resident < 0 || resident > numFrames || policyLength < 0 || policyLength > MAX_POLICY_NAME
+                || policyLength > buffer.remaining()) {
+            throw new MemoryException("Snapshot: " + file + " is truncated or corrupt");
+        }
+        byte[] policyName=new byte[policyLength];
+        buffer.get(policyName);
+        String savedPolicy=new String(policyName, StandardCharsets.UTF_8);
+        if (!savedPolicy.equals(policy)) {
+            throw new MemoryException("Snapshot: image was taken with the " + savedPolicy + " policy, not " + policy);
+        }
+        if (buffer.capacity() != size(policy, pageSize, numPages, numFrames, resident)) {
+            throw new MemoryException("Snapshot: " + file + " is truncated or corrupt");
+        }
+        buffer.load();
+        return new ManagerSnapshot(buffer, memory, pageSize, resident, false);
+    }
+
+    private void putInt(int value) {
+        buffer.putInt(value);
+    }
+
+    private void putLong(long value) {
+        buffer.putLong(value);
+    }
+
+    private void putInts(int[] values) {
+        for (int value : values) {
+            buffer.putInt(value);
+        }
+    }
+
+    private void putFlags(boolean[] flags, int count) {
+        for (int i=0; i < count; i++) {
+            buffer.put(flags != null && flags[i] ? (byte) 1 : 0);
+        }
+    }
+
+    private void putFrame(int frame) throws MemoryException {
+        int index=buffer.position();
+        memory.writeTo(buffer, index, frame * pageSize, pageSize);
+        buffer.position(index + pageSize);
+    }
+
+    private void putDisk(BackingStore disk, int numPages) throws MemoryException {
+        for (int page=0; page < numPages; page++) {
+            buffer.put(disk.readPage(page));
+        }
+    }
+
+    private int getInt() {
+        return buffer.getInt();
+    }
+
+    private long getLong() {
+        return buffer.getLong();
+    }
+
+    private void getInts(int[] values) {
+        for (int i=0; i < values.length; i++) {
+            values[i]=buffer.getInt();
+        }
+    }
+
+    private void getFlags(boolean[] flags, int count) {
+        for (int i=0; i < count; i++) {
+            byte flag=buffer.get();
+            if (flags != null) {
+                flags[i]=flag != 0;
+            }
+        }
+    }
+
+    private void getFrame(int frame) throws MemoryException {
+        int index=buffer.position();
+        memory.readFrom(buffer, index, frame * pageSize, pageSize);
+        buffer.position(index + pageSize);
+    }
+
+    private void getDisk(BackingStore disk, int numPages) throws MemoryException {
+        for (int page=0; page < numPages; page++) {
+            byte[] data=new byte[pageSize];
+            buffer.get(data);
+            disk.writePage(page, data);
+        }
+    }
+
+    private void finish() throws MemoryException {
+        if (buffer.hasRemaining()) {
+            throw new MemoryException("Snapshot: " + buffer.remaining() + " bytes left over");
+        }
+        if (writable) {
+            buffer.force();
+        }
+    }
+}
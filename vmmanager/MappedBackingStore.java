@@ -0,0 +1,190 @@
+package vmmanager;
+
+import vmsimulation.BackingStore;
+import vmsimulation.MemoryException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+public class MappedBackingStore extends BackingStore {
+
+    private static final int MAGIC=0x564D4453;
+    private static final int HEADER_SIZE=4096;
+    private static final long SEGMENT_SIZE=1L << 30;
+
+    private FileChannel channel;
+    private MappedByteBuffer header;
+    private MappedByteBuffer[] segments;
+    private int segmentShift;
+    private long capacity;
+    private int pageSize;
+    private int pageCount;
+    private boolean reused;
+
+    private MappedBackingStore(FileChannel channel, long capacity, int pageSize) throws MemoryException {
+        super(pageSize, pageSize, 0);
+        this.channel=channel;
+        this.capacity=capacity;
+        this.pageSize=pageSize;
+        this.pageCount=(int) (capacity / pageSize);
+    }
+
+    public static MappedBackingStore open(Path file, long capacity, int pageSize, int seed) throws MemoryException {
+        if (capacity < 2 || (capacity & (capacity - 1)) != 0) {
+            throw new MemoryException("Disk: capacity must be a power of two >= 2");
+        }
+        if (pageSize < 2 || (pageSize & (pageSize - 1)) != 0) {
+            throw new MemoryException("Disk: page size must be a power of two >= 2");
+        }
+        if (capacity % pageSize != 0) {
+            throw new MemoryException("Disk: page size must divide capacity");
+        }
+        if (capacity / pageSize > Integer.MAX_VALUE) {
+            throw new MemoryException("Disk: too many pages for int page numbers");
+        }
+        MappedBackingStore store=null;
+        try {
+            boolean existed=Files.exists(file);
+            FileChannel channel=FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            store=new MappedBackingStore(channel, capacity, pageSize);
+            store.map();
+            store.reused=existed && store.headerMatches(seed);
+            if (!store.reused) {
+                store.fill(seed);
+                store.writeHeader(seed);
+            }
+            return store;
+        } catch (IOException e) {
+            if (store != null) {
+                store.close();
+            }
+            throw new MemoryException("Disk: cannot map " + file + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(capacity, 1 << 30);
+    }
+
+    @Override
+    public byte[] readPage(int pageNumber) throws MemoryException {
+        byte[] data=new byte[pageSize];
+        readPageInto(pageNumber, data, 0);
+        return data;
+    }
+
+    @Override
+    public void writePage(int pageNumber, byte[] data) throws MemoryException {
+        if (pageNumber < 0 || pageNumber >= pageCount || data.length < pageSize) {
+            throw new MemoryException("Disk: invalid page write");
+        }
+        segment(pageNumber).put(offset(pageNumber), data, 0, pageSize);
+    }
+
+    public void readPageInto(int pageNumber, byte[] dst, int dstOffset) throws MemoryException {
+        if (pageNumber < 0 || pageNumber >= pageCount) {
+            throw new MemoryException("Disk: invalid page read");
+        }
+        segment(pageNumber).get(offset(pageNumber), dst, dstOffset, pageSize);
+    }
+
+    public void transferPageTo(int pageNumber, RangeMemory memory, int address) throws MemoryException {
+        if (pageNumber < 0 || pageNumber >= pageCount) {
+            throw new MemoryException("Disk: invalid page read");
+        }
+        memory.readFrom(segment(pageNumber), offset(pageNumber), address, pageSize);
+    }
+
+    public void transferPageFrom(int pageNumber, RangeMemory memory, int address) throws MemoryException {
+        if (pageNumber < 0 || pageNumber >= pageCount) {
+            throw new MemoryException("Disk: invalid page write");
+        }
+        memory.writeTo(segment(pageNumber), offset(pageNumber), address, pageSize);
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public int pageCount() {
+        return pageCount;
+    }
+
+    public int pageSize() {
+        return pageSize;
+    }
+
+    public boolean wasReused() {
+        return reused;
+    }
+
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    public void close() {
+        try {
+            if (segments != null) {
+                force();
+            }
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Disk: error closing image: " + e.getMessage());
+        }
+    }
+
+    private void map() throws IOException {
+        long segmentSize=Math.min(SEGMENT_SIZE, capacity);
+        segmentShift=Long.numberOfTrailingZeros(segmentSize);
+        int count=(int) ((capacity + segmentSize - 1) / segmentSize);
+        header=channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        segments=new MappedByteBuffer[count];
+        for (int i=0; i < count; i++) {
+            segments[i]=channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + i * segmentSize, segmentSize);
+        }
+    }
+
+    private boolean headerMatches(int seed) {
+        return header.getInt(0) == MAGIC
+                && header.getLong(4) == capacity
+                && header.getInt(12) == pageSize
+                && header.getInt(16) == seed;
+    }
+
+    private void writeHeader(int seed) {
+        header.putLong(4, capacity);
+        header.putInt(12, pageSize);
+        header.putInt(16, seed);
+        header.putInt(0, MAGIC);
+        header.force();
+    }
+
+    private void fill(int seed) {
+        header.putInt(0, 0);
+        Random random=new Random(seed + 666);
+        byte[] page=new byte[pageSize];
+        for (int p=0; p < pageCount; p++) {
+            random.nextBytes(page);
+            segment(p).put(offset(p), page, 0, pageSize);
+        }
+        force();
+    }
+
+    private MappedByteBuffer segment(int pageNumber) {
+        return segments[(int) (((long) pageNumber * pageSize) >>> segmentShift)];
+    }
+
+    private int offset(int pageNumber) {
+        return (int) (((long) pageNumber * pageSize) & ((1L << segmentShift) - 1));
+    }
+}
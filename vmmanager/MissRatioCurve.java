@@ -0,0 +1,264 @@
+package vmmanager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class MissRatioCurve {
+
+    private static final int NO_WRITE=Integer.MAX_VALUE;
+    private static final int SAMPLE_BITS=24;
+
+    private int numPages;
+    private int pageSize;
+    private int offsetBits;
+    private double samplingRate;
+    private int sampleThreshold;
+
+    private int[] lastAccess;
+    private int[] writeGap;
+    private int[] tree;
+    private int now=0;
+    private int marked=0;
+
+    private long[] distanceCounts;
+    private long[] writeBackDiff;
+    private long coldCount=0;
+    private long accessCount=0;
+    private long sampledCount=0;
+
+    private long[] faults;
+    private long[] writeBacks;
+
+    public MissRatioCurve(int numPages, int pageSize) {
+        this(numPages, pageSize, 1.0);
+    }
+
+    public MissRatioCurve(int numPages, int pageSize, double samplingRate) {
+        if (samplingRate <= 0 || samplingRate > 1) {
+            throw new IllegalArgumentException("Sampling rate must be in (0, 1]");
+        }
+        this.numPages=numPages;
+        this.pageSize=pageSize;
+        this.offsetBits=Integer.numberOfTrailingZeros(pageSize);
+        this.samplingRate=samplingRate;
+        this.sampleThreshold=(int) Math.round(samplingRate * (1 << SAMPLE_BITS));
+        lastAccess=new int[numPages];
+        writeGap=new int[numPages];
+        Arrays.fill(lastAccess, -1);
+        Arrays.fill(writeGap, NO_WRITE);
+        tree=new int[2 * numPages + 1];
+        distanceCounts=new long[numPages + 1];
+        writeBackDiff=new long[numPages + 2];
+    }
+
+    public void read(int address) {
+        access((address >>> offsetBits) & (numPages - 1), false);
+    }
+
+    public void write(int address) {
+        access((address >>> offsetBits) & (numPages - 1), true);
+    }
+
+    public void access(int page, boolean write) {
+        accessCount++;
+        if (samplingRate < 1 && !sampled(page)) {
+            return;
+        }
+        sampledCount++;
+        faults=null;
+        if (now == tree.length - 1) {
+            compact();
+        }
+        int last=lastAccess[page];
+        int distance;
+        if (last == -1) {
+            coldCount++;
+            distance=numPages;
+        } else {
+            distance=scale(marked - prefix(last));
+            distanceCounts[distance]++;
+            add(last, -1);
+            marked--;
+        }
+        int gap=writeGap[page];
+        if (gap != NO_WRITE && gap < distance) {
+            writeBackDiff[gap + 1]++;
+            writeBackDiff[distance + 1]--;
+        }
+        if (write) {
+            writeGap[page]=0;
+        } else if (gap != NO_WRITE) {
+            writeGap[page]=Math.max(gap, distance);
+        }
+        lastAccess[page]=now;
+        add(now, 1);
+        marked++;
+        now++;
+    }
+
+    public void read(TraceReader reader) throws IOException {
+        while (reader.next()) {
+            if (reader.isWrite()) {
+                write(reader.address());
+            } else {
+                read(reader.address());
+            }
+        }
+    }
+
+    public long getAccessCount() {
+        return accessCount;
+    }
+
+    public long getSampledCount() {
+        return sampledCount;
+    }
+
+    public int getMaxFrames() {
+        return numPages;
+    }
+
+    public long getFaultCount(int frames) {
+        finish();
+        return unscale(faults[clampFrames(frames)]);
+    }
+
+    public long getWriteBackCount(int frames) {
+        finish();
+        return unscale(writeBacks[clampFrames(frames)]);
+    }
+
+    public long getTransferredBytes(int frames) {
+        return (getFaultCount(frames) + getWriteBackCount(frames)) * pageSize;
+    }
+
+    public double getMissRatio(int frames) {
+        return accessCount == 0 ? 0 : (double) getFaultCount(frames) / accessCount;
+    }
+
+    public long[] faultCurve() {
+        long[] curve=new long[numPages + 1];
+        for (int frames=1; frames <= numPages; frames++) {
+            curve[frames]=getFaultCount(frames);
+        }
+        return curve;
+    }
+
+    public long[] transferredByteCurve() {
+        long[] curve=new long[numPages + 1];
+        for (int frames=1; frames <= numPages; frames++) {
+            curve[frames]=getTransferredBytes(frames);
+        }
+        return curve;
+    }
+
+    private void finish() {
+        if (faults != null) {
+            return;
+        }
+        faults=new long[numPages + 1];
+        writeBacks=new long[numPages + 1];
+        long misses=coldCount;
+        for (int frames=numPages; frames >= 1; frames--) {
+            misses+=distanceCounts[frames];
+            faults[frames]=misses;
+        }
+        long[] finalDiff=new long[numPages + 2];
+        for (int page=0; page < numPages; page++) {
+            int gap=writeGap[page];
+            if (gap != NO_WRITE && gap < numPages) {
+                finalDiff[gap + 1]++;
+            }
+        }
+        long pending=0;
+        long finalCount=0;
+        for (int frames=1; frames <= numPages; frames++) {
+            pending+=writeBackDiff[frames];
+            finalCount+=finalDiff[frames];
+            writeBacks[frames]=pending + finalCount;
+        }
+    }
+
+    private boolean sampled(int page) {
+        int h=page * 0x9E3779B9;
+        h^=h >>> 15;
+        h*=0x85EBCA6B;
+        h^=h >>> 13;
+        return (h & ((1 << SAMPLE_BITS) - 1)) < sampleThreshold;
+    }
+
+    private int scale(int distance) {
+        if (samplingRate < 1) {
+            distance=(int) Math.min(numPages, Math.round(distance / samplingRate));
+        }
+        return Math.min(distance, numPages);
+    }
+
+    private long unscale(long count) {
+        return samplingRate < 1 ? Math.round(count / samplingRate) : count;
+    }
+
+    private int clampFrames(int frames) {
+        return Math.max(1, Math.min(frames, numPages));
+    }
+
+    private void compact() {
+        long[] order=new long[marked];
+        int count=0;
+        for (int page=0; page < numPages; page++) {
+            if (lastAccess[page] != -1) {
+                order[count++]=((long) lastAccess[page] << 32) | page;
+            }
+        }
+        Arrays.sort(order, 0, count);
+        Arrays.fill(tree, 0);
+        for (int i=0; i < count; i++) {
+            lastAccess[(int) order[i]]=i;
+            tree[i + 1]=1;
+        }
+        for (int i=1; i < tree.length; i++) {
+            int parent=i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent]+=tree[i];
+            }
+        }
+        now=count;
+    }
+
+    private void add(int index, int delta) {
+        for (int i=index + 1; i < tree.length; i+=i & -i) {
+            tree[i]+=delta;
+        }
+    }
+
+    private int prefix(int index) {
+        int sum=0;
+        for (int i=index + 1; i > 0; i-=i & -i) {
+            sum+=tree[i];
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: java vmmanager.MissRatioCurve <trace> <disk size> <page size> [sampling rate]");
+            System.exit(1);
+        }
+        int diskSize=Integer.parseInt(args[1]);
+        int pageSize=Integer.parseInt(args[2]);
+        double rate=args.length > 3 ? Double.parseDouble(args[3]) : 1.0;
+        MissRatioCurve curve=new MissRatioCurve(diskSize / pageSize, pageSize, rate);
+        try (TraceReader reader=new TraceReader(Path.of(args[0]))) {
+            curve.read(reader);
+        } catch (IOException e) {
+            System.err.println("Trace: " + e.getMessage());
+            System.exit(1);
+        }
+        System.out.println("FRAMES,RAM SIZE,PAGE FAULTS,BYTES TRANSFERRED");
+        for (int frames=1; frames <= curve.getMaxFrames(); frames++) {
+            System.out.println(frames + "," + (long) frames * pageSize + ","
+                    + curve.getFaultCount(frames) + "," + curve.getTransferredBytes(frames));
+        }
+    }
+}
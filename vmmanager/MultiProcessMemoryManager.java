@@ -0,0 +1,762 @@
+package vmmanager;
+
+import vmsimulation.BackingStore;
+import vmsimulation.MainMemory;
+import vmsimulation.MemoryException;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class MultiProcessMemoryManager {
+
+    private static class Process {
+        int asid;
+        int numPages;
+        int swapBase;
+        int frameQuota;
+        PageTable pageTable;
+        int[] source;
+        ReplacementPolicy policy;
+        WorkingSetEstimator workingSet;
+        int frameLimit;
+        long lastFaultTime=0;
+        long scheduledAt=0;
+        boolean suspended=false;
+        int[] localFrames;
+        int localCount=0;
+        int residentCount=0;
+        long pageFaultCount=0;
+        long transferredByteCount=0;
+        long evictionCount=0;
+        long stolenCount=0;
+        long reclaimedCount=0;
+        long copyOnWriteCount=0;
+        long sharedFaultCount=0;
+        long slotCopyCount=0;
+
+        Process(int asid, int numPages, int swapBase, int frameQuota) {
+            this.asid=asid;
+            this.numPages=numPages;
+            this.swapBase=swapBase;
+            this.frameQuota=frameQuota;
+        }
+    }
+
+    MainMemory memory;
+    BackingStore disk;
+    Integer pageSize;
+
+    private VmOptions options;
+    private boolean localScope;
+    private boolean workingSetScope;
+    private int numPages;
+    private int numFrames;
+    private int offsetBits;
+
+    private ArrayList<Process> processes=new ArrayList<>();
+    private TreeMap<Integer, Integer> freeRegions=new TreeMap<>();
+    private int reservedFrames=0;
+    private ArrayList<Process> suspendedQueue=new ArrayList<>();
+    private long suspendCount=0;
+    private long clock=0;
+
+    private Tlb tlb;
+    private PageTransfer transfer;
+    private ReplacementPolicy globalPolicy;
+
+    private int[] frameOwner;
+    private int[] framePage;
+    private int[] frameLocal;
+    private boolean[] dirty;
+    private int[] frameRefs;
+    private int[] frameSlot;
+    private int[] slotFrame;
+    private int[] slotRefs;
+    private byte[] copyBuffer;
+    private int[] freeFrames;
+    private int freeCount;
+
+    public MultiProcessMemoryManager(MainMemory memory,
+                                     BackingStore disk,
+                                     Integer pageSize) throws MemoryException {
+        this(memory, disk, pageSize, VmOptions.fromSystemProperties());
+    }
+
+    public MultiProcessMemoryManager(MainMemory memory,
+                                     BackingStore disk,
+                                     Integer pageSize,
+                                     VmOptions options) throws MemoryException {
+        this.memory=memory;
+        this.disk=disk;
+        this.pageSize=pageSize;
+        this.options=options;
+
+        this.offsetBits=Integer.numberOfTrailingZeros(pageSize);
+        this.numFrames=memory.size() / pageSize;
+        this.numPages=disk.size() / pageSize;
+
+        switch (options.replacementScope.toUpperCase()) {
+            case "GLOBAL":
+                localScope=false;
+                break;
+            case "LOCAL":
+                localScope=true;
+                break;
+            case "WORKING_SET":
+            case "WORKING-SET":
+                workingSetScope=true;
+                break;
+            default:
+                throw new MemoryException("Unknown replacement scope: " + options.replacementScope);
+        }
+
+        freeRegions.put(0, numPages);
+        try {
+            tlb=new Tlb(options.tlbEntries, options.tlbWays, options.tlbReplacement);
+        } catch (IllegalArgumentException e) {
+            throw new MemoryException(e.getMessage());
+        }
+        transfer=new PageTransfer(memory, disk, pageSize);
+        if (!localScope && !workingSetScope) {
+            globalPolicy=createPolicy(numFrames);
+        }
+        frameOwner=new int[numFrames];
+        framePage=new int[numFrames];
+        frameLocal=new int[numFrames];
+        dirty=new boolean[numFrames];
+        frameRefs=new int[numFrames];
+        frameSlot=new int[numFrames];
+        slotFrame=new int[numPages];
+        slotRefs=new int[numPages];
+        copyBuffer=new byte[pageSize];
+        freeFrames=new int[numFrames];
+        for (int i=0; i < numFrames; i++) {
+            frameOwner[i]=-1;
+            framePage[i]=-1;
+            frameSlot[i]=-1;
+            freeFrames[i]=numFrames - 1 - i;
+        }
+        for (int i=0; i < numPages; i++) {
+            slotFrame[i]=-1;
+        }
+        freeCount=numFrames;
+    }
+
+    public int createProcess(int virtualPages, int frameQuota) throws MemoryException {
+        if (virtualPages <= 0) {
+            throw new MemoryException("Process: address space must have at least one page");
+        }
+        if (localScope && (frameQuota <= 0 || reservedFrames + frameQuota > numFrames)) {
+            throw new MemoryException("Process: frame quota " + frameQuota + " cannot be reserved ("
+                    + (numFrames - reservedFrames) + " frames left)");
+        }
+        PageTable pageTable=createPageTable(virtualPages);
+        ReplacementPolicy policy=null;
+        if (localScope || workingSetScope) {
+            policy=createPolicy(localScope ? frameQuota : numFrames);
+        }
+        int swapBase=allocateRegion(virtualPages);
+        if (swapBase == -1) {
+            throw new MemoryException("Disk: no swap region of " + virtualPages + " pages left");
+        }
+        int asid=nextAsid();
+        Process process=new Process(asid, virtualPages, swapBase, localScope ? frameQuota : numFrames);
+        process.pageTable=pageTable;
+        process.policy=policy;
+        process.workingSet=new WorkingSetEstimator(virtualPages, options.workingSetWindow);
+        process.source=new int[virtualPages];
+        for (int page=0; page < virtualPages; page++) {
+            process.source[page]=swapBase + page;
+            slotRefs[swapBase + page]++;
+        }
+        if (localScope) {
+            process.localFrames=new int[frameQuota];
+            reservedFrames+=frameQuota;
+        }
+        if (workingSetScope) {
+            process.frameLimit=Math.max(1, Math.min(frameQuota, numFrames));
+            process.scheduledAt=clock;
+        }
+        processes.set(asid, process);
+        return asid;
+    }
+
+    public int forkProcess(int asid) throws MemoryException {
+        Process parent=process(asid);
+        if (localScope || workingSetScope) {
+            throw new MemoryException("Process: copy-on-write fork needs the GLOBAL replacement scope");
+        }
+        PageTable pageTable=createPageTable(parent.numPages);
+        int swapBase=allocateRegion(parent.numPages);
+        if (swapBase == -1) {
+            throw new MemoryException("Disk: no swap region of " + parent.numPages + " pages left");
+        }
+        int childAsid=nextAsid();
+        Process child=new Process(childAsid, parent.numPages, swapBase, numFrames);
+        child.pageTable=pageTable;
+        child.workingSet=new WorkingSetEstimator(parent.numPages, options.workingSetWindow);
+        child.source=parent.source.clone();
+        for (int page=0; page < parent.numPages; page++) {
+            slotRefs[child.source[page]]++;
+            int frame=parent.pageTable.lookup(page);
+            if (frame != -1) {
+                child.pageTable.map(page, frame);
+                frameRefs[frame]++;
+                child.residentCount++;
+            }
+        }
+        processes.set(childAsid, child);
+        return childAsid;
+    }
+
+    public void destroyProcess(int asid) throws MemoryException {
+        Process process=process(asid);
+        for (int frame=0; frame < numFrames; frame++) {
+            if (frameOwner[frame] == -1 || !maps(process, framePage[frame], frame)) {
+                continue;
+            }
+            tlb.invalidate(process.swapBase + framePage[frame]);
+            if (frameRefs[frame] > 1) {
+                frameRefs[frame]--;
+                if (frameOwner[frame] == asid) {
+                    frameOwner[frame]=sharerOf(frame, process).asid;
+                }
+                continue;
+            }
+            if (globalPolicy != null) {
+                globalPolicy.onRemove(frame);
+            }
+            releaseFrame(frame);
+        }
+        if (localScope) {
+            reservedFrames-=process.frameQuota;
+        }
+        for (int page=0; page < process.numPages; page++) {
+            int slot=process.swapBase + page;
+            migrateReaders(process, page, -1);
+            slotRefs[process.source[page]]--;
+            if (slotFrame[slot] != -1) {
+                unshare(slotFrame[slot]);
+            }
+        }
+        freeRegion(process.swapBase, process.numPages);
+        processes.set(asid, null);
+        suspendedQueue.remove(process);
+        if (workingSetScope) {
+            controlLoad(null);
+        }
+    }
+
+    public byte readByte(int asid, int virtualAddress) throws MemoryException {
+        Process process=process(asid);
+        int frame=ensurePageInMemory(process, pageOf(process, virtualAddress));
+        return memory.readByte((frame << offsetBits) | (virtualAddress & (pageSize - 1)));
+    }
+
+    public void writeByte(int asid, int virtualAddress, byte value) throws MemoryException {
+        Process process=process(asid);
+        int page=pageOf(process, virtualAddress);
+        int frame=ensurePageInMemory(process, page);
+        if (frameRefs[frame] > 1) {
+            frame=breakCopyOnWrite(process, page, frame);
+        }
+        unshare(frame);
+        memory.writeByte((frame << offsetBits) | (virtualAddress & (pageSize - 1)), value);
+        dirty[frame]=true;
+    }
+
+    public void writeBackAllPagesToDisk() throws MemoryException {
+        for (int frame=0; frame < numFrames; frame++) {
+            int owner=frameOwner[frame];
+            if (owner != -1 && dirty[frame]) {
+                writeBack(processes.get(owner), framePage[frame], frame);
+            }
+        }
+    }
+
+    public int getPageFaultCount() {
+        long total=0;
+        for (Process process : processes) {
+            if (process != null) {
+                total+=process.pageFaultCount;
+            }
+        }
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+
+    public int getTransferedByteCount() {
+        return (int) Math.min(getTransferredBytes(), Integer.MAX_VALUE);
+    }
+
+    public long getTransferredBytes() {
+        long total=0;
+        for (Process process : processes) {
+            if (process != null) {
+                total+=process.transferredByteCount;
+            }
+        }
+        return total;
+    }
+
+    public long getPageFaultCount(int asid) throws MemoryException {
+        return process(asid).pageFaultCount;
+    }
+
+    public long getTransferedByteCount(int asid) throws MemoryException {
+        return process(asid).transferredByteCount;
+    }
+
+    public long getEvictionCount(int asid) throws MemoryException {
+        return process(asid).evictionCount;
+    }
+
+    public long getStolenFrameCount(int asid) throws MemoryException {
+        return process(asid).stolenCount;
+    }
+
+    public int getResidentPageCount(int asid) throws MemoryException {
+        return process(asid).residentCount;
+    }
+
+    public int getSwapBase(int asid) throws MemoryException {
+        return process(asid).swapBase;
+    }
+
+    public int getWorkingSetSize(int asid) throws MemoryException {
+        return process(asid).workingSet.size();
+    }
+
+    public int getFrameLimit(int asid) throws MemoryException {
+        Process process=process(asid);
+        return workingSetScope ? process.frameLimit : process.frameQuota;
+    }
+
+    public long getReclaimedFrameCount(int asid) throws MemoryException {
+        return process(asid).reclaimedCount;
+    }
+
+    public long getCopyOnWriteCount(int asid) throws MemoryException {
+        return process(asid).copyOnWriteCount;
+    }
+
+    public long getSharedFaultCount(int asid) throws MemoryException {
+        return process(asid).sharedFaultCount;
+    }
+
+    public long getSlotCopyCount(int asid) throws MemoryException {
+        return process(asid).slotCopyCount;
+    }
+
+    public int getSharedFrameCount() {
+        int count=0;
+        for (int frame=0; frame < numFrames; frame++) {
+            if (frameRefs[frame] > 1) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public boolean isSuspended(int asid) throws MemoryException {
+        return process(asid).suspended;
+    }
+
+    public long getSuspendCount() {
+        return suspendCount;
+    }
+
+    public long getTlbHitCount() {
+        return tlb.getHitCount();
+    }
+
+    public long getTlbMissCount() {
+        return tlb.getMissCount();
+    }
+
+    private Process process(int asid) throws MemoryException {
+        Process process=asid >= 0 && asid < processes.size() ? processes.get(asid) : null;
+        if (process == null) {
+            throw new MemoryException("Process: no such address space " + asid);
+        }
+        return process;
+    }
+
+    private PageTable createPageTable(int pages) throws MemoryException {
+        try {
+            return PageTable.create(options.pageTable, pages, numFrames);
+        } catch (IllegalArgumentException e) {
+            throw new MemoryException(e.getMessage());
+        }
+    }
+
+    private ReplacementPolicy createPolicy(int frames) throws MemoryException {
+        try {
+            return ReplacementPolicy.create(options.policy, frames);
+        } catch (IllegalArgumentException e) {
+            throw new MemoryException(e.getMessage());
+        }
+    }
+
+    private int nextAsid() {
+        int asid=processes.indexOf(null);
+        if (asid == -1) {
+            asid=processes.size();
+            processes.add(null);
+        }
+        return asid;
+    }
+
+    private int pageOf(Process process, int virtualAddress) throws MemoryException {
+        int page=virtualAddress >>> offsetBits;
+        if (virtualAddress < 0 || page >= process.numPages) {
+            throw new MemoryException("Process " + process.asid + ": address out of range");
+        }
+        return page;
+    }
+
+    private int ensurePageInMemory(Process process, int page) throws MemoryException {
+        if (process.suspended) {
+            throw new MemoryException("Process " + process.asid + ": suspended by load control");
+        }
+        process.workingSet.access(page);
+        clock++;
+        int tag=process.swapBase + page;
+        int frame=tlb.lookup(tag);
+        if (frame == -1) {
+            frame=process.pageTable.lookup(page);
+            if (frame != -1) {
+                tlb.insert(tag, frame);
+            }
+        }
+        if (frame != -1) {
+            if (localScope) {
+                process.policy.onAccess(page, frameLocal[frame]);
+            } else if (workingSetScope) {
+                process.policy.onAccess(page, frame);
+            } else {
+                globalPolicy.onAccess(tag, frame);
+            }
+            return frame;
+        }
+        process.pageFaultCount++;
+        if (globalPolicy != null && slotFrame[process.source[page]] != -1) {
+            frame=slotFrame[process.source[page]];
+            frameRefs[frame]++;
+            process.sharedFaultCount++;
+            process.residentCount++;
+            process.pageTable.map(page, frame);
+            tlb.insert(tag, frame);
+            globalPolicy.onAccess(tag, frame);
+            return frame;
+        }
+        if (localScope) {
+            int local;
+            if (process.localCount < process.frameQuota) {
+                frame=freeFrames[--freeCount];
+                local=process.localCount++;
+                process.localFrames[local]=frame;
+            } else {
+                local=process.policy.selectVictim(page);
+                frame=process.localFrames[local];
+                evict(frame, process);
+            }
+            frameLocal[frame]=local;
+            process.policy.onFault(page, local);
+        } else if (workingSetScope) {
+            adjustFrameLimit(process);
+            frame=allocateWorkingSetFrame(process, page);
+            process.policy.onFault(page, frame);
+        } else {
+            if (freeCount > 0) {
+                frame=freeFrames[--freeCount];
+            } else {
+                frame=globalPolicy.selectVictim(tag);
+                evict(frame, process);
+            }
+            globalPolicy.onFault(tag, frame);
+        }
+        int slot=process.source[page];
+        transfer.load(slot, frame);
+        process.transferredByteCount+=pageSize;
+        dirty[frame]=false;
+        frameOwner[frame]=process.asid;
+        framePage[frame]=page;
+        frameRefs[frame]=1;
+        frameSlot[frame]=slot;
+        slotFrame[slot]=frame;
+        process.residentCount++;
+        process.pageTable.map(page, frame);
+        tlb.insert(tag, frame);
+        return frame;
+    }
+
+    private void evict(int frame, Process faulting) throws MemoryException {
+        Process owner=processes.get(frameOwner[frame]);
+        int page=framePage[frame];
+        if (dirty[frame]) {
+            writeBack(owner, page, frame);
+        }
+        unshare(frame);
+        if (frameRefs[frame] > 1) {
+            for (Process sharer : processes) {
+                if (sharer != null && sharer != owner && maps(sharer, page, frame)) {
+                    unmap(sharer, page, faulting);
+                }
+            }
+        }
+        unmap(owner, page, faulting);
+        frameRefs[frame]=0;
+    }
+
+    private void unmap(Process process, int page, Process faulting) {
+        process.pageTable.unmap(page);
+        tlb.invalidate(process.swapBase + page);
+        process.residentCount--;
+        process.evictionCount++;
+        if (process != faulting) {
+            process.stolenCount++;
+        }
+    }
+
+    private void writeBack(Process owner, int page, int frame) throws MemoryException {
+        int slot=owner.swapBase + page;
+        migrateReaders(owner, page, frame);
+        if (slotFrame[slot] != -1) {
+            unshare(slotFrame[slot]);
+        }
+        transfer.store(slot, frame);
+        owner.transferredByteCount+=pageSize;
+        dirty[frame]=false;
+        if (frameRefs[frame] > 1) {
+            for (Process sharer : processes) {
+                if (sharer != null && sharer != owner && maps(sharer, page, frame)) {
+                    setSource(sharer, page, slot);
+                }
+            }
+        }
+        setSource(owner, page, slot);
+        unshare(frame);
+        frameSlot[frame]=slot;
+        slotFrame[slot]=frame;
+    }
+
+    private void migrateReaders(Process owner, int page, int frame) throws MemoryException {
+        int slot=owner.swapBase + page;
+        if (slotRefs[slot] == (owner.source[page] == slot ? 1 : 0)) {
+            return;
+        }
+        for (Process reader : processes) {
+            if (reader == null || reader == owner || page >= reader.numPages || reader.source[page] != slot
+                    || (frame != -1 && reader.pageTable.lookup(page) == frame)) {
+                continue;
+            }
+            int copy=reader.swapBase + page;
+            disk.writePage(copy, disk.readPage(slot));
+            reader.transferredByteCount+=pageSize;
+            reader.slotCopyCount++;
+            setSource(reader, page, copy);
+        }
+    }
+
+    private void setSource(Process process, int page, int slot) {
+        slotRefs[process.source[page]]--;
+        slotRefs[slot]++;
+        process.source[page]=slot;
+    }
+
+    private int breakCopyOnWrite(Process process, int page, int shared) throws MemoryException {
+        int tag=process.swapBase + page;
+        process.copyOnWriteCount++;
+        transfer.readFrame(shared, copyBuffer);
+        boolean wasDirty=dirty[shared];
+        int frame;
+        if (freeCount > 0) {
+            frame=freeFrames[--freeCount];
+        } else {
+            frame=globalPolicy.selectVictim(tag);
+            evict(frame, process);
+        }
+        if (maps(process, page, shared)) {
+            process.pageTable.unmap(page);
+            tlb.invalidate(tag);
+            process.residentCount--;
+            frameRefs[shared]--;
+            if (frameOwner[shared] == process.asid) {
+                frameOwner[shared]=sharerOf(shared, process).asid;
+            }
+        } else {
+            wasDirty=false;
+        }
+        transfer.install(frame, copyBuffer);
+        dirty[frame]=wasDirty;
+        frameOwner[frame]=process.asid;
+        framePage[frame]=page;
+        frameRefs[frame]=1;
+        frameSlot[frame]=-1;
+        globalPolicy.onFault(tag, frame);
+        process.residentCount++;
+        process.pageTable.map(page, frame);
+        tlb.insert(tag, frame);
+        return frame;
+    }
+
+    private boolean maps(Process process, int page, int frame) {
+        return page < process.numPages && process.pageTable.lookup(page) == frame;
+    }
+
+    private Process sharerOf(int frame, Process except) {
+        for (Process sharer : processes) {
+            if (sharer != null && sharer != except && maps(sharer, framePage[frame], frame)) {
+                return sharer;
+            }
+        }
+        throw new IllegalStateException("Shared frame " + frame + " has no other mapping");
+    }
+
+    private void unshare(int frame) {
+        int slot=frameSlot[frame];
+        if (slot != -1) {
+            if (slotFrame[slot] == frame) {
+                slotFrame[slot]=-1;
+            }
+            frameSlot[frame]=-1;
+        }
+    }
+
+    private void adjustFrameLimit(Process process) throws MemoryException {
+        long now=process.workingSet.time();
+        long interval=now - process.lastFaultTime;
+        process.lastFaultTime=now;
+        if (interval * options.pffHigh < 1000) {
+            process.frameLimit=Math.min(numFrames, process.frameLimit + 1);
+        } else if (interval * options.pffLow > 1000) {
+            trim(process);
+            process.frameLimit=Math.max(1, process.workingSet.size());
+        }
+        controlLoad(process);
+    }
+
+    private int allocateWorkingSetFrame(Process process, int page) throws MemoryException {
+        if (process.residentCount > 0 && process.residentCount >= process.frameLimit) {
+            int frame=process.policy.selectVictim(page);
+            evict(frame, process);
+            return frame;
+        }
+        if (freeCount > 0) {
+            return freeFrames[--freeCount];
+        }
+        Process donor=process;
+        for (Process candidate : processes) {
+            if (candidate != null && candidate.residentCount - candidate.frameLimit > donor.residentCount - donor.frameLimit) {
+                donor=candidate;
+            }
+        }
+        if (donor.residentCount == 0) {
+            for (Process candidate : processes) {
+                if (candidate != null && candidate.residentCount > donor.residentCount) {
+                    donor=candidate;
+                }
+            }
+        }
+        int frame=donor.policy.selectVictim(-1);
+        evict(frame, process);
+        return frame;
+    }
+
+    private void trim(Process process) throws MemoryException {
+        for (int frame=0; frame < numFrames; frame++) {
+            if (frameOwner[frame] == process.asid && !process.workingSet.contains(framePage[frame])) {
+                process.policy.onRemove(frame);
+                evict(frame, process);
+                releaseFrame(frame);
+                process.reclaimedCount++;
+            }
+        }
+    }
+
+    private void controlLoad(Process running) throws MemoryException {
+        int demand=0;
+        Process oldest=null;
+        for (Process process : processes) {
+            if (process != null && !process.suspended) {
+                demand+=process.workingSet.size();
+                if (process != running && (oldest == null || process.scheduledAt < oldest.scheduledAt)) {
+                    oldest=process;
+                }
+            }
+        }
+        if (demand > numFrames && oldest != null && freeCount == 0) {
+            suspend(oldest);
+            return;
+        }
+        while (!suspendedQueue.isEmpty()) {
+            Process next=suspendedQueue.get(0);
+            boolean fits=demand + next.workingSet.size() <= numFrames;
+            if (!fits && clock - next.scheduledAt < options.loadControlQuantum) {
+                break;
+            }
+            suspendedQueue.remove(0);
+            next.suspended=false;
+            next.scheduledAt=clock;
+            demand+=next.workingSet.size();
+            if (!fits) {
+                break;
+            }
+        }
+    }
+
+    private void suspend(Process process) throws MemoryException {
+        for (int frame=0; frame < numFrames; frame++) {
+            if (frameOwner[frame] == process.asid) {
+                process.policy.onRemove(frame);
+                evict(frame, process);
+                releaseFrame(frame);
+                process.reclaimedCount++;
+            }
+        }
+        process.suspended=true;
+        process.scheduledAt=clock;
+        process.frameLimit=Math.max(1, process.workingSet.size());
+        suspendedQueue.add(process);
+        suspendCount++;
+    }
+
+    private void releaseFrame(int frame) {
+        unshare(frame);
+        frameOwner[frame]=-1;
+        framePage[frame]=-1;
+        frameRefs[frame]=0;
+        dirty[frame]=false;
+        freeFrames[freeCount++]=frame;
+    }
+
+    private int allocateRegion(int pages) {
+        for (Map.Entry<Integer, Integer> region : freeRegions.entrySet()) {
+            int base=region.getKey();
+            int length=region.getValue();
+            if (length >= pages) {
+                freeRegions.remove(base);
+                if (length > pages) {
+                    freeRegions.put(base + pages, length - pages);
+                }
+                return base;
+            }
+        }
+        return -1;
+    }
+
+    private void freeRegion(int base, int pages) {
+        Map.Entry<Integer, Integer> next=freeRegions.ceilingEntry(base);
+        if (next != null && next.getKey() == base + pages) {
+            freeRegions.remove(next.getKey());
+            pages+=next.getValue();
+        }
+        Map.Entry<Integer, Integer> previous=freeRegions.floorEntry(base);
+        if (previous != null && previous.getKey() + previous.getValue() == base) {
+            base=previous.getKey();
+            pages+=previous.getValue();
+        }
+        freeRegions.put(base, pages);
+    }
+}
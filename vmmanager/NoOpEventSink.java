@@ -0,0 +1,27 @@
+package vmmanager;
+
+public final class NoOpEventSink implements VmEventSink {
+
+    public static final NoOpEventSink INSTANCE=new NoOpEventSink();
+
+    private NoOpEventSink() {
+    }
+
+    public void pageHit(int page, int frame) {
+    }
+
+    public void pageFault(int page, int frame) {
+    }
+
+    public void pageEvicted(int page, int frame, boolean dirty) {
+    }
+
+    public void pageWrittenBack(int page, int frame) {
+    }
+
+    public void memoryRead(int physicalAddress, byte value) {
+    }
+
+    public void memoryWritten(int physicalAddress, byte value) {
+    }
+}
@@ -0,0 +1,164 @@
+package vmmanager;
+
+import vmsimulation.MainMemory;
+import vmsimulation.MemoryException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class OffHeapMainMemory extends MainMemory implements RangeMemory {
+
+    private static final int SEGMENT_SHIFT=30;
+    private static final long SEGMENT_SIZE=1L << SEGMENT_SHIFT;
+    private static final long SEGMENT_MASK=SEGMENT_SIZE - 1;
+
+    private ByteBuffer[] segments;
+    private long capacity;
+
+    public OffHeapMainMemory(long capacity) throws MemoryException {
+        super(2);
+        if (capacity < 2 || (capacity & (capacity - 1)) != 0) {
+            throw new MemoryException("Main Memory: capacity must be a  power of two >= 2");
+        }
+        this.capacity=capacity;
+        int count=(int) ((capacity + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT);
+        segments=new ByteBuffer[count];
+        for (int i=0; i < count; i++) {
+            int length=(int) Math.min(SEGMENT_SIZE, capacity - i * SEGMENT_SIZE);
+            segments[i]=ByteBuffer.allocateDirect(length).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(capacity, 1 << 30);
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    @Override
+    public byte readByte(int address) throws MemoryException {
+        return readByte((long) address);
+    }
+
+    @Override
+    public void writeByte(int address, byte value) throws MemoryException {
+        writeByte((long) address, value);
+    }
+
+    public byte readByte(long address) throws MemoryException {
+        if (address < 0 || address >= capacity) {
+            throw new MemoryException("Main Memory: Bus error on a read");
+        }
+        return segment(address).get(offset(address));
+    }
+
+    public void writeByte(long address, byte value) throws MemoryException {
+        if (address < 0 || address >= capacity) {
+            throw new MemoryException("Main Memory: Bus error on a write");
+        }
+        segment(address).put(offset(address), value);
+    }
+
+    public int readInt(long address) throws MemoryException {
+        checkAligned(address, 4, "Main Memory: Bus error on a read");
+        return segment(address).getInt(offset(address));
+    }
+
+    public void writeInt(long address, int value) throws MemoryException {
+        checkAligned(address, 4, "Main Memory: Bus error on a write");
+        segment(address).putInt(offset(address), value);
+    }
+
+    public long readLong(long address) throws MemoryException {
+        checkAligned(address, 8, "Main Memory: Bus error on a read");
+        return segment(address).getLong(offset(address));
+    }
+
+    public void writeLong(long address, long value) throws MemoryException {
+        checkAligned(address, 8, "Main Memory: Bus error on a write");
+        segment(address).putLong(offset(address), value);
+    }
+
+    public void readRange(int address, byte[] dst, int offset, int length) throws MemoryException {
+        readRange((long) address, dst, offset, length);
+    }
+
+    public void writeRange(int address, byte[] src, int offset, int length) throws MemoryException {
+        writeRange((long) address, src, offset, length);
+    }
+
+    public void readRange(long address, byte[] dst, int offset, int length) throws MemoryException {
+        checkRange(address, length, "Main Memory: Bus error on a read");
+        while (length > 0) {
+            int chunk=chunk(address, length);
+            segment(address).get(offset(address), dst, offset, chunk);
+            address+=chunk;
+            offset+=chunk;
+            length-=chunk;
+        }
+    }
+
+    public void writeRange(long address, byte[] src, int offset, int length) throws MemoryException {
+        checkRange(address, length, "Main Memory: Bus error on a write");
+        while (length > 0) {
+            int chunk=chunk(address, length);
+            segment(address).put(offset(address), src, offset, chunk);
+            address+=chunk;
+            offset+=chunk;
+            length-=chunk;
+        }
+    }
+
+    @Override
+    public void readFrom(ByteBuffer src, int srcIndex, int address, int length) throws MemoryException {
+        long addr=address;
+        checkRange(addr, length, "Main Memory: Bus error on a write");
+        while (length > 0) {
+            int chunk=chunk(addr, length);
+            segment(addr).put(offset(addr), src, srcIndex, chunk);
+            addr+=chunk;
+            srcIndex+=chunk;
+            length-=chunk;
+        }
+    }
+
+    @Override
+    public void writeTo(ByteBuffer dst, int dstIndex, int address, int length) throws MemoryException {
+        long addr=address;
+        checkRange(addr, length, "Main Memory: Bus error on a read");
+        while (length > 0) {
+            int chunk=chunk(addr, length);
+            dst.put(dstIndex, segment(addr), offset(addr), chunk);
+            addr+=chunk;
+            dstIndex+=chunk;
+            length-=chunk;
+        }
+    }
+
+    private void checkAligned(long address, int width, String message) throws MemoryException {
+        if (address < 0 || address > capacity - width || (address & (width - 1)) != 0) {
+            throw new MemoryException(message);
+        }
+    }
+
+    private void checkRange(long address, int length, String message) throws MemoryException {
+        if (address < 0 || length < 0 || address > capacity - length) {
+            throw new MemoryException(message);
+        }
+    }
+
+    private int chunk(long address, int length) {
+        return (int) Math.min(length, SEGMENT_SIZE - (address & SEGMENT_MASK));
+    }
+
+    private ByteBuffer segment(long address) {
+        return segments[(int) (address >>> SEGMENT_SHIFT)];
+    }
+
+    private static int offset(long address) {
+        return (int) (address & SEGMENT_MASK);
+    }
+}
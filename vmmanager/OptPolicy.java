@@ -0,0 +1,147 @@
+package vmmanager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class OptPolicy implements ReplacementPolicy {
+
+    private static final int NEVER=Integer.MAX_VALUE;
+
+    private int[] nextUse;
+    private int time=0;
+
+    private int[] heap;
+    private int[] position;
+    private int[] key;
+    private int size=0;
+
+    public OptPolicy(int numFrames, int[] nextUse) {
+        this.nextUse=nextUse;
+        heap=new int[numFrames];
+        position=new int[numFrames];
+        key=new int[numFrames];
+        Arrays.fill(position, -1);
+    }
+
+    public static int[] nextUse(Path trace, int pageSize, int numPages) throws IOException {
+        int offsetBits=Integer.numberOfTrailingZeros(pageSize);
+        try (TraceReader reader=new TraceReader(trace)) {
+            long count=reader.getRecordCount();
+            if (count > Integer.MAX_VALUE - 8) {
+                throw new IOException("Trace: too many accesses for OPT: " + count);
+            }
+            int[] accesses=new int[(int) count];
+            int length=0;
+            while (length < accesses.length && reader.next()) {
+                accesses[length++]=(reader.address() >>> offsetBits) & (numPages - 1);
+            }
+            int[] last=new int[numPages];
+            Arrays.fill(last, -1);
+            for (int i=length - 1; i >= 0; i--) {
+                int page=accesses[i];
+                accesses[i]=last[page];
+                last[page]=i;
+            }
+            return length == accesses.length ? accesses : Arrays.copyOf(accesses, length);
+        }
+    }
+
+    public void onAccess(int page, int frame) {
+        key[frame]=advance();
+        if (position[frame] == -1) {
+            insert(frame);
+        } else {
+            update(frame);
+        }
+    }
+
+    public void onFault(int page, int frame) {
+        onAccess(page, frame);
+    }
+
+    public int selectVictim(int incomingPage) {
+        int victim=heap[0];
+        remove(victim);
+        return victim;
+    }
+
+    public void onRemove(int frame) {
+        if (position[frame] != -1) {
+            remove(frame);
+        }
+    }
+
+    public String name() {
+        return "OPT";
+    }
+
+    private int advance() {
+        int next=time < nextUse.length ? nextUse[time] : -1;
+        time++;
+        return next == -1 ? NEVER : next;
+    }
+
+    private void insert(int frame) {
+        heap[size]=frame;
+        position[frame]=size;
+        size++;
+        siftUp(size - 1);
+    }
+
+    private void update(int frame) {
+        int index=position[frame];
+        siftUp(index);
+        siftDown(position[frame]);
+    }
+
+    private void remove(int frame) {
+        int index=position[frame];
+        size--;
+        position[frame]=-1;
+        if (index == size) {
+            return;
+        }
+        int last=heap[size];
+        heap[index]=last;
+        position[last]=index;
+        siftUp(index);
+        siftDown(position[last]);
+    }
+
+    private void siftUp(int index) {
+        int frame=heap[index];
+        while (index > 0) {
+            int parent=(index - 1) >>> 1;
+            if (key[heap[parent]] >= key[frame]) {
+                break;
+            }
+            heap[index]=heap[parent];
+            position[heap[index]]=index;
+            index=parent;
+        }
+        heap[index]=frame;
+        position[frame]=index;
+    }
+
+    private void siftDown(int index) {
+        int frame=heap[index];
+        while (true) {
+            int child=2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && key[heap[child + 1]] > key[heap[child]]) {
+                child++;
+            }
+            if (key[heap[child]] <= key[frame]) {
+                break;
+            }
+            heap[index]=heap[child];
+            position[heap[index]]=index;
+            index=child;
+        }
+        heap[index]=frame;
+        position[frame]=index;
+    }
+}
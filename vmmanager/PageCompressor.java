@@ -0,0 +1,122 @@
+package vmmanager;
+
+import java.util.Arrays;
+
+public class PageCompressor {
+
+    private static final int MIN_MATCH=4;
+    private static final int LAST_LITERALS=5;
+    private static final int MATCH_LIMIT=12;
+    private static final int MAX_OFFSET=65535;
+    private static final int HASH_BITS=12;
+
+    private int[] table=new int[1 << HASH_BITS];
+
+    public int compress(byte[] src, int length, byte[] dst) {
+        Arrays.fill(table, -1);
+        int ip=0;
+        int anchor=0;
+        int op=0;
+        int limit=length - MATCH_LIMIT;
+        while (ip < limit) {
+            int sequence=readInt(src, ip);
+            int h=(sequence * 0x9E3779B1) >>> (32 - HASH_BITS);
+            int ref=table[h];
+            table[h]=ip;
+            if (ref < 0 || ip - ref > MAX_OFFSET || readInt(src, ref) != sequence) {
+                ip++;
+                continue;
+            }
+            int matchLength=MIN_MATCH;
+            while (ip + matchLength < length - LAST_LITERALS && src[ref + matchLength] == src[ip + matchLength]) {
+                matchLength++;
+            }
+            op=writeSequence(src, anchor, ip - anchor, ip - ref, matchLength, dst, op);
+            if (op < 0) {
+                return -1;
+            }
+            ip+=matchLength;
+            anchor=ip;
+        }
+        return writeSequence(src, anchor, length - anchor, 0, 0, dst, op);
+    }
+
+    public static void decompress(byte[] src, int srcLength, byte[] dst) {
+        int ip=0;
+        int op=0;
+        while (true) {
+            int token=src[ip++] & 0xFF;
+            int literals=token >>> 4;
+            if (literals == 15) {
+                int b;
+                do {
+                    b=src[ip++] & 0xFF;
+                    literals+=b;
+                } while (b == 255);
+            }
+            System.arraycopy(src, ip, dst, op, literals);
+            ip+=literals;
+            op+=literals;
+            if (ip >= srcLength) {
+                return;
+            }
+            int offset=(src[ip] & 0xFF) | (src[ip + 1] & 0xFF) << 8;
+            ip+=2;
+            int matchLength=token & 0x0F;
+            if (matchLength == 15) {
+                int b;
+                do {
+                    b=src[ip++] & 0xFF;
+                    matchLength+=b;
+                } while (b == 255);
+            }
+            matchLength+=MIN_MATCH;
+            for (int i=0; i < matchLength; i++) {
+                dst[op + i]=dst[op - offset + i];
+            }
+            op+=matchLength;
+        }
+    }
+
+    private static int writeSequence(byte[] src, int start, int literals, int offset, int matchLength,
+                                     byte[] dst, int op) {
+        int extra=literals >= 15 ? 1 + (literals - 15) / 255 : 0;
+        int matchExtra=matchLength - MIN_MATCH >= 15 ? 1 + (matchLength - MIN_MATCH - 15) / 255 : 0;
+        int needed=1 + extra + literals + (matchLength > 0 ? 2 + matchExtra : 0);
+        if (op + needed > dst.length) {
+            return -1;
+        }
+        int token=Math.min(literals, 15) << 4;
+        if (matchLength > 0) {
+            token|=Math.min(matchLength - MIN_MATCH, 15);
+        }
+        dst[op++]=(byte) token;
+        op=writeLength(literals, dst, op);
+        System.arraycopy(src, start, dst, op, literals);
+        op+=literals;
+        if (matchLength > 0) {
+            dst[op++]=(byte) offset;
+            dst[op++]=(byte) (offset >>> 8);
+            op=writeLength(matchLength - MIN_MATCH, dst, op);
+        }
+        return op;
+    }
+
+    private static int writeLength(int length, byte[] dst, int op) {
+        if (length < 15) {
+            return op;
+        }
+        length-=15;
+        while (length >= 255) {
+            dst[op++]=(byte) 255;
+            length-=255;
+        }
+        dst[op++]=(byte) length;
+        return op;
+    }
+
+    private static int readInt(byte[] src, int index) {
+        return (src[index] & 0xFF) | (src[index + 1] & 0xFF) << 8
+                | (src[index + 2] & 0xFF) << 16 | (src[index + 3] & 0xFF) << 24;
+    }
+}
@@ -0,0 +1,26 @@
+package vmmanager;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("vmmanager.PageEviction")
+@Label("Page Eviction")
+@Category("Virtual Memory Manager")
+@Description("A resident page evicted to make room for a faulting page")
+public class PageEvictionEvent extends Event {
+
+    @Label("Page")
+    public int page;
+
+    @Label("Frame")
+    public int frame;
+
+    @Label("Dirty")
+    public boolean dirty;
+
+    @Label("Incoming Page")
+    public int incomingPage;
+}
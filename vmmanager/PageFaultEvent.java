@@ -0,0 +1,23 @@
+package vmmanager;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("vmmanager.PageFault")
+@Label("Page Fault")
+@Category("Virtual Memory Manager")
+@Description("A page fault serviced by a virtual memory manager")
+public class PageFaultEvent extends Event {
+
+    @Label("Page")
+    public int page;
+
+    @Label("Frame")
+    public int frame;
+
+    @Label("Manager")
+    public String manager;
+}
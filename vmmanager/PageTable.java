@@ -0,0 +1,27 @@
+package vmmanager;
+
+public interface PageTable {
+
+    int lookup(int page);
+
+    void map(int page, int frame);
+
+    void unmap(int page);
+
+    long footprintBytes();
+
+    static PageTable create(String layout, int numPages, int numFrames) {
+        switch (layout.toUpperCase()) {
+            case "FLAT":
+                return new FlatPageTable(numPages);
+            case "RADIX2":
+                return new RadixPageTable(numPages, 2);
+            case "RADIX3":
+                return new RadixPageTable(numPages, 3);
+            case "INVERTED":
+                return new InvertedPageTable(numFrames);
+            default:
+                throw new IllegalArgumentException("Unknown page table layout: " + layout);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package vmmanager;
+
+import vmsimulation.BackingStore;
+import vmsimulation.MainMemory;
+import vmsimulation.MemoryException;
+
+public class PageTransfer {
+
+    private RangeMemory memory;
+    private BackingStore disk;
+    private MappedBackingStore mappedDisk;
+    private CompressedPageCache cache;
+    private int pageSize;
+    private byte[] buffer;
+
+    public PageTransfer(MainMemory memory, BackingStore disk, int pageSize) {
+        this(memory, disk, pageSize, null);
+    }
+
+    public PageTransfer(MainMemory memory, BackingStore disk, int pageSize, CompressedPageCache cache) {
+        this.cache=cache;
+        this.memory=RangeMemory.of(memory);
+        this.disk=disk;
+        this.mappedDisk=disk instanceof MappedBackingStore ? (MappedBackingStore) disk : null;
+        this.pageSize=pageSize;
+        this.buffer=new byte[pageSize];
+    }
+
+    public boolean load(int pageNumber, int frame) throws MemoryException {
+        if (cache != null && cache.load(pageNumber, buffer)) {
+            memory.writeRange(frame * pageSize, buffer, 0, pageSize);
+            return false;
+        }
+        if (mappedDisk != null) {
+            mappedDisk.transferPageTo(pageNumber, memory, frame * pageSize);
+            return true;
+        }
+        byte[] pageData=disk.readPage(pageNumber);
+        memory.writeRange(frame * pageSize, pageData, 0, pageSize);
+        return true;
+    }
+
+    public void install(int frame, byte[] pageData) throws MemoryException {
+        memory.writeRange(frame * pageSize, pageData, 0, pageSize);
+    }
+
+    public void readFrame(int frame, byte[] dst) throws MemoryException {
+        memory.readRange(frame * pageSize, dst, 0, pageSize);
+    }
+
+    public boolean store(int pageNumber, int frame) throws MemoryException {
+        if (cache != null) {
+            memory.readRange(frame * pageSize, buffer, 0, pageSize);
+            if (cache.store(pageNumber, buffer)) {
+                return false;
+            }
+            disk.writePage(pageNumber, buffer);
+            return true;
+        }
+        if (mappedDisk != null) {
+            mappedDisk.transferPageFrom(pageNumber, memory, frame * pageSize);
+            return true;
+        }
+        memory.readRange(frame * pageSize, buffer, 0, pageSize);
+        disk.writePage(pageNumber, buffer);
+        return true;
+    }
+
+    public boolean isCached(int pageNumber) {
+        return cache != null && cache.contains(pageNumber);
+    }
+
+    public void invalidate(int pageNumber) {
+        if (cache != null) {
+            cache.invalidate(pageNumber);
+        }
+    }
+
+    public void flush() throws MemoryException {
+        if (cache != null) {
+            cache.flush();
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package vmmanager;
+
+import vmsimulation.MemoryException;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+public class ParameterSweep {
+
+    private static final String[] AXES={"version", "ram", "disk", "page", "transactions", "seed", "locality", "policy"};
+
+    private Map<String, String[]> grid=new LinkedHashMap<>();
+
+    public ParameterSweep() {
+        grid.put("version", new String[] {"V4"});
+        grid.put("ram", new String[] {"64"});
+        grid.put("disk", new String[] {"256"});
+        grid.put("page", new String[] {"8"});
+        grid.put("transactions", new String[] {"400"});
+        grid.put("seed", new String[] {"7"});
+        grid.put("locality", new String[] {"0"});
+        grid.put("policy", new String[] {""});
+    }
+
+    public void set(String axis, String... values) {
+        if (!grid.containsKey(axis)) {
+            throw new IllegalArgumentException("Unknown sweep parameter: " + axis);
+        }
+        if (values.length == 0) {
+            throw new IllegalArgumentException("No values for sweep parameter: " + axis);
+        }
+        grid.put(axis, values);
+    }
+
+    public List<Run> runs() {
+        List<Run> runs=new ArrayList<>();
+        int[] index=new int[AXES.length];
+        while (true) {
+            String[] values=new String[AXES.length];
+            for (int a=0; a < AXES.length; a++) {
+                values[a]=grid.get(AXES[a])[index[a]];
+            }
+            runs.add(new Run(runs.size(), values));
+            int a=AXES.length - 1;
+            while (a >= 0 && ++index[a] == grid.get(AXES[a]).length) {
+                index[a]=0;
+                a--;
+            }
+            if (a < 0) {
+                return runs;
+            }
+        }
+    }
+
+    public List<Run> execute(int threads) throws InterruptedException {
+        List<Run> runs=runs();
+        ForkJoinPool pool=new ForkJoinPool(threads);
+        try {
+            List<Callable<Run>> tasks=new ArrayList<>(runs);
+            for (Future<Run> future : pool.invokeAll(tasks)) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return runs;
+    }
+
+    public static void writeCsv(List<Run> runs, PrintStream out) {
+        out.println("run,version,ram,disk,page,transactions,seed,locality,policy,accesses,faults,bytes,ns_per_access,error");
+        for (Run run : runs) {
+            StringBuilder line=new StringBuilder().append(run.index);
+            for (String value : run.values) {
+                line.append(',').append(value);
+            }
+            line.append(',').append(run.accesses).append(',').append(run.faults).append(',').append(run.bytes)
+                    .append(',').append(String.format(Locale.ROOT, "%.1f", run.nsPerAccess()))
+                    .append(',').append(run.error == null ? "" : '"' + run.error.replace("\"", "\"\"") + '"');
+            out.println(line);
+        }
+    }
+
+    public static void writeJson(List<Run> runs, PrintStream out) {
+        out.println("[");
+        for (int i=0; i < runs.size(); i++) {
+            Run run=runs.get(i);
+            StringBuilder line=new StringBuilder("  {\"run\": ").append(run.index);
+            for (int a=0; a < AXES.length; a++) {
+                line.append(", \"").append(AXES[a]).append("\": ");
+                if (a == 0 || a == AXES.length - 1) {
+                    appendJsonString(line, run.values[a]);
+                } else {
+                    appendJsonNumber(line, run.values[a]);
+                }
+            }
+            line.append(", \"accesses\": ").append(run.accesses).append(", \"faults\": ").append(run.faults)
+                    .append(", \"bytes\": ").append(run.bytes)
+                    .append(", \"nsPerAccess\": ").append(String.format(Locale.ROOT, "%.1f", run.nsPerAccess()));
+            if (run.error != null) {
+                appendJsonString(line.append(", \"error\": "), run.error);
+            }
+            out.println(line.append(i == runs.size() - 1 ? "}" : "},"));
+        }
+        out.println("]");
+    }
+
+    private static void appendJsonNumber(StringBuilder line, String value) {
+        try {
+            line.append(Integer.parseInt(value));
+        } catch (NumberFormatException e) {
+            line.append("null");
+        }
+    }
+
+    private static void appendJsonString(StringBuilder line, String value) {
+        line.append('"');
+        for (int i=0; i < value.length(); i++) {
+            char c=value.charAt(i);
+            switch (c) {
+                case '"':
+                    line.append("\\\"");
+                    break;
+                case '\\':
+                    line.append("\\\\");
+                    break;
+                case '\n':
+                    line.append("\\n");
+                    break;
+                case '\r':
+                    line.append("\\r");
+                    break;
+                case '\t':
+                    line.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        line.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                    break;
+            }
+        }
+        line.append('"');
+    }
+
+    public static class Run implements Callable<Run> {
+
+        private int index;
+        private String[] values;
+        private long accesses=0;
+        private long faults=0;
+        private long bytes=0;
+        private long elapsed=0;
+        private String error;
+
+        private Run(int index, String[] values) {
+            this.index=index;
+            this.values=values;
+        }
+
+        public Run call() {
+            String version=values[0];
+            try {
+                int ramSize=Integer.parseInt(values[1]);
+                int diskSize=Integer.parseInt(values[2]);
+                int pageSize=Integer.parseInt(values[3]);
+                int transactions=Integer.parseInt(values[4]);
+                int seed=Integer.parseInt(values[5]);
+                int locality=Integer.parseInt(values[6]);
+                validate(version, ramSize, diskSize, pageSize);
+                VmOptions options=VmOptions.fromSystemProperties();
+                options.events="NONE";
+                options.metricsMBean="";
+                if (!values[7].isEmpty()) {
+                    if (!version.equals("V4")) {
+                        throw new MemoryException("Policy " + values[7] + " only applies to V4; "
+                                + version + " has a fixed replacement policy");
+                    }
+                    options.policy=values[7];
+                }
+                if (locality < 0 || locality > 100) {
+                    throw new MemoryException("Locality must be between 0 and 100");
+                }
+                try (TraceReplay replay=new TraceReplay(version, ramSize, diskSize, pageSize, seed, options)) {
+                    int addressRange=version.equals("V0") ? ramSize : diskSize;
+                    long start=System.nanoTime();
+                    accesses=replay.simulate(addressRange, transactions, seed, locality);
+                    elapsed=System.nanoTime() - start;
+                    replay.finish();
+                    faults=replay.getPageFaultCount();
+                    bytes=replay.getTransferredBytes();
+                }
+            } catch (Throwable e) {
+                Throwable cause=e instanceof InvocationTargetException ? e.getCause() : e;
+                error=cause instanceof MemoryException ? cause.getMessage() : cause.toString();
+            }
+            return this;
+        }
+
+        private static void validate(String version, int ramSize, int diskSize, int pageSize) throws MemoryException {
+            if (!version.matches("V[0-4]")) {
+                throw new MemoryException("Unknown version: " + version);
+            }
+            if (!isPowerOfTwo(ramSize)) {
+                throw new MemoryException("RAM size must be a power of two >= 2");
+            }
+            if (version.equals("V0")) {
+                return;
+            }
+            if (!isPowerOfTwo(diskSize)) {
+                throw new MemoryException("Disk size must be a power of two >= 2");
+            }
+            if (!isPowerOfTwo(pageSize)) {
+                throw new MemoryException("Page size must be a power of two >= 2");
+            }
+            if (pageSize > ramSize) {
+                throw new MemoryException("Page size must not exceed the RAM size");
+            }
+            if (diskSize < ramSize) {
+                throw new MemoryException("Disk size must be at least the RAM size");
+            }
+            if (version.equals("V1") && diskSize != ramSize) {
+                throw new MemoryException("V1 needs the disk size to equal the RAM size");
+            }
+        }
+
+        private static boolean isPowerOfTwo(int size) {
+            return size >= 2 && Integer.bitCount(size) == 1;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String get(String axis) {
+            for (int a=0; a < AXES.length; a++) {
+                if (AXES[a].equals(axis)) {
+                    return values[a];
+                }
+            }
+            throw new IllegalArgumentException("Unknown sweep parameter: " + axis);
+        }
+
+        public long getAccesses() {
+            return accesses;
+        }
+
+        public long getFaults() {
+            return faults;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public double nsPerAccess() {
+            return accesses == 0 ? 0 : (double) elapsed / accesses;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    public static void main(String[] args) {
+        ParameterSweep sweep=new ParameterSweep();
+        int threads=Runtime.getRuntime().availableProcessors();
+        String format="csv";
+        String output=null;
+        try {
+            for (String arg : args) {
+                int eq=arg.indexOf('=');
+                if (eq <= 0) {
+                    throw new IllegalArgumentException("Expected key=value, got: " + arg);
+                }
+                String key=arg.substring(0, eq);
+                String value=arg.substring(eq + 1);
+                switch (key) {
+                    case "threads":
+                        threads=Integer.parseInt(value);
+                        break;
+                    case "format":
+                        format=value;
+                        break;
+                    case "out":
+                        output=value;
+                        break;
+                    default:
+                        sweep.set(key, value.split(","));
+                        break;
+                }
+            }
+            if (!format.equals("csv") && !format.equals("json")) {
+                throw new IllegalArgumentException("Unknown format: " + format);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: java vmmanager.ParameterSweep [version=V0,..] [ram=..] [disk=..] [page=..] [transactions=..]");
+            System.err.println("       [seed=..] [locality=..] [policy=..] [threads=n] [format=csv|json] [out=file]");
+            System.exit(1);
+        }
+        try {
+            long start=System.nanoTime();
+            List<Run> runs=sweep.execute(threads);
+            long elapsed=System.nanoTime() - start;
+            if (output == null) {
+                write(runs, format, System.out);
+            } else {
+                try (PrintStream out=new PrintStream(Files.newOutputStream(Path.of(output)))) {
+                    write(runs, format, out);
+                }
+            }
+            System.err.println(runs.size() + " runs on " + threads + " threads in " + elapsed / 1000000 + " ms");
+        } catch (IOException e) {
+            System.err.println("Output: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        }
+    }
+
+    private static void write(List<Run> runs, String format, PrintStream out) {
+        if (format.equals("json")) {
+            writeJson(runs, out);
+        } else {
+            writeCsv(runs, out);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package vmmanager;
+
+import vmsimulation.BackingStore;
+import vmsimulation.MemoryException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.IntPredicate;
+
+public class Prefetcher {
+
+    private static class Completion {
+        int page;
+        int generation;
+        byte[] data;
+
+        Completion(int page, int generation, byte[] data) {
+            this.page=page;
+            this.generation=generation;
+            this.data=data;
+        }
+    }
+
+    private BackingStore disk;
+    private int pageSize;
+    private int numPages;
+    private int window;
+    private IntPredicate resident;
+    private VmMetrics metrics;
+
+    private ExecutorService executor;
+    private LinkedBlockingQueue<Completion> completed=new LinkedBlockingQueue<>();
+
+    private IntIntMap pending;
+    private IntIntMap staged;
+    private byte[][] slots;
+    private int[] slotPage;
+    private LruList slotOrder;
+    private int nextGeneration=0;
+
+    private int lastFault=-1;
+    private int lastStride=0;
+    private int confidence=0;
+
+    private long issuedCount=0;
+    private long hitCount=0;
+    private long wastedCount=0;
+    private long prefetchedBytes=0;
+
+    public Prefetcher(BackingStore disk, int pageSize, int numPages, int window, IntPredicate resident,
+                      VmMetrics metrics) {
+        this.disk=disk;
+        this.pageSize=pageSize;
+        this.numPages=numPages;
+        this.window=window;
+        this.resident=resident;
+        this.metrics=metrics;
+        int capacity=Math.max(1, 2 * window);
+        pending=new IntIntMap(capacity);
+        staged=new IntIntMap(capacity);
+        slots=new byte[capacity][];
+        slotPage=new int[capacity];
+        slotOrder=new LruList(capacity);
+        executor=Executors.newSingleThreadExecutor(r -> {
+            Thread thread=new Thread(r, "vm-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isStaged(int page) {
+        drain();
+        return staged.containsKey(page) || pending.containsKey(page);
+    }
+
+    public byte[] take(int page) {
+        drain();
+        if (pending.containsKey(page)) {
+            awaitPage(page);
+        }
+        int slot=staged.remove(page);
+        if (slot == -1) {
+            return null;
+        }
+        byte[] data=slots[slot];
+        slots[slot]=null;
+        slotOrder.remove(slot);
+        hitCount++;
+        return data;
+    }
+
+    public void afterFault(int page) {
+        int stride=lastFault == -1 ? 0 : page - lastFault;
+        if (stride != 0 && stride == lastStride) {
+            confidence++;
+        } else {
+            confidence=0;
+        }
+        lastStride=stride;
+        lastFault=page;
+        if (confidence == 0) {
+            return;
+        }
+        for (int k=1; k <= window; k++) {
+            long target=page + (long) stride * k;
+            if (target < 0 || target >= numPages) {
+                break;
+            }
+            issue((int) target);
+        }
+    }
+
+    public void invalidate(int page) {
+        if (pending.remove(page) != -1) {
+            wastedCount++;
+        }
+        int slot=staged.remove(page);
+        if (slot != -1) {
+            slots[slot]=null;
+            slotOrder.remove(slot);
+            wastedCount++;
+        }
+    }
+
+    public long getIssuedCount() {
+        return issuedCount;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getWastedCount() {
+        return wastedCount;
+    }
+
+    public long getPrefetchedBytes() {
+        return prefetchedBytes;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+        completed.clear();
+        pending.clear();
+        staged.clear();
+        for (int slot=0; slot < slots.length; slot++) {
+            if (slots[slot] != null) {
+                slots[slot]=null;
+                slotOrder.remove(slot);
+            }
+        }
+    }
+
+    private void issue(int page) {
+        if (resident.test(page) || pending.containsKey(page) || staged.containsKey(page)) {
+            return;
+        }
+        int generation=nextGeneration;
+        nextGeneration=(nextGeneration + 1) & Integer.MAX_VALUE;
+        pending.put(page, generation);
+        issuedCount++;
+        executor.execute(() -> {
+            byte[] data=null;
+            try {
+                data=disk.readPage(page);
+            } catch (MemoryException e) {
+                data=null;
+            }
+            completed.add(new Completion(page, generation, data));
+        });
+    }
+
+    private void drain() {
+        Completion completion;
+        while ((completion=completed.poll()) != null) {
+            accept(completion);
+        }
+    }
+
+    private void awaitPage(int page) {
+        try {
+            while (pending.containsKey(page)) {
+                accept(completed.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.remove(page);
+        }
+    }
+
+    private void accept(Completion completion) {
+        if (completion.data != null) {
+            prefetchedBytes+=pageSize;
+            metrics.recordPageIn(pageSize);
+        }
+        if (pending.get(completion.page) != completion.generation) {
+            return;
+        }
+        pending.remove(completion.page);
+        if (completion.data == null) {
+            wastedCount++;
+            return;
+        }
+        int slot=freeSlot();
+        slots[slot]=completion.data;
+        slotPage[slot]=completion.page;
+        slotOrder.touch(slot);
+        staged.put(completion.page, slot);
+    }
+
+    private int freeSlot() {
+        for (int i=0; i < slots.length; i++) {
+            if (slots[i] == null) {
+                return i;
+            }
+        }
+        int slot=slotOrder.eldest();
+        slotOrder.remove(slot);
+        staged.remove(slotPage[slot]);
+        slots[slot]=null;
+        wastedCount++;
+        return slot;
+    }
+}
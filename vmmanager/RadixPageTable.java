@@ -0,0 +1,142 @@
+package vmmanager;
+
+public class RadixPageTable implements PageTable {
+
+    private int levels;
+    private int numPages;
+    private int[] shifts;
+    private int[] masks;
+
+    private Object[] root;
+    private long allocatedBytes;
+
+    private Object[][] path;
+    private int[] pathIndex;
+
+    public RadixPageTable(int numPages, int levels) {
+        if (levels < 2) {
+            throw new IllegalArgumentException("A radix page table needs at least 2 levels");
+        }
+        this.levels=levels;
+        this.numPages=numPages;
+        int pageBits=Math.max(levels, 32 - Integer.numberOfLeadingZeros(Math.max(1, numPages - 1)));
+        shifts=new int[levels];
+        masks=new int[levels];
+        int remaining=pageBits;
+        int shift=pageBits;
+        for (int level=0; level < levels; level++) {
+            int bits=(remaining + (levels - level) - 1) / (levels - level);
+            remaining-=bits;
+            shift-=bits;
+            shifts[level]=shift;
+            masks[level]=(1 << bits) - 1;
+        }
+        root=newNode(0);
+        path=new Object[levels - 1][];
+        pathIndex=new int[levels - 1];
+    }
+
+    public int lookup(int page) {
+        Object[] node=root;
+        for (int level=0; level < levels - 2; level++) {
+            node=(Object[]) node[(page >>> shifts[level]) & masks[level]];
+            if (node == null) {
+                return -1;
+            }
+        }
+        int[] leaf=(int[]) node[(page >>> shifts[levels - 2]) & masks[levels - 2]];
+        if (leaf == null) {
+            return -1;
+        }
+        return leaf[page & masks[levels - 1]];
+    }
+
+    public void map(int page, int frame) {
+        if (page < 0 || page >= numPages) {
+            throw new IndexOutOfBoundsException("Page " + page + " is outside the address space");
+        }
+        Object[] node=root;
+        for (int level=0; level < levels - 2; level++) {
+            int index=(page >>> shifts[level]) & masks[level];
+            if (node[index] == null) {
+                node[index]=newNode(level + 1);
+                childCount(node)[0]++;
+            }
+            node=(Object[]) node[index];
+        }
+        int index=(page >>> shifts[levels - 2]) & masks[levels - 2];
+        int[] leaf=(int[]) node[index];
+        if (leaf == null) {
+            leaf=newLeaf();
+            node[index]=leaf;
+            childCount(node)[0]++;
+        }
+        int slot=page & masks[levels - 1];
+        if (leaf[slot] == -1) {
+            leaf[leaf.length - 1]++;
+        }
+        leaf[slot]=frame;
+    }
+
+    public void unmap(int page) {
+        Object[] node=root;
+        for (int level=0; level < levels - 2; level++) {
+            int index=(page >>> shifts[level]) & masks[level];
+            path[level]=node;
+            pathIndex[level]=index;
+            node=(Object[]) node[index];
+            if (node == null) {
+                return;
+            }
+        }
+        int index=(page >>> shifts[levels - 2]) & masks[levels - 2];
+        int[] leaf=(int[]) node[index];
+        int slot=page & masks[levels - 1];
+        if (leaf == null || leaf[slot] == -1) {
+            return;
+        }
+        leaf[slot]=-1;
+        if (--leaf[leaf.length - 1] > 0) {
+            return;
+        }
+        node[index]=null;
+        allocatedBytes-=4L * leaf.length;
+        for (int level=levels - 3; level >= 0; level--) {
+            if (--childCount(node)[0] > 0) {
+                return;
+            }
+            allocatedBytes-=8L * node.length + 4;
+            node=path[level];
+            node[pathIndex[level]]=null;
+        }
+        childCount(node)[0]--;
+    }
+
+    public long footprintBytes() {
+        return allocatedBytes;
+    }
+
+    public int levels() {
+        return levels;
+    }
+
+    private Object[] newNode(int level) {
+        Object[] node=new Object[masks[level] + 2];
+        node[node.length - 1]=new int[1];
+        allocatedBytes+=8L * node.length + 4;
+        return node;
+    }
+
+    private int[] newLeaf() {
+        int[] leaf=new int[masks[levels - 1] + 2];
+        for (int i=0; i < leaf.length - 1; i++) {
+            leaf[i]=-1;
+        }
+        allocatedBytes+=4L * leaf.length;
+        return leaf;
+    }
+
+    private static int[] childCount(Object[] node) {
+        return (int[]) node[node.length - 1];
+    }
+}
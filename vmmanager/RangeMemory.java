@@ -0,0 +1,32 @@
+package vmmanager;
+
+import vmsimulation.MainMemory;
+import vmsimulation.MemoryException;
+
+import java.nio.ByteBuffer;
+
+public interface RangeMemory {
+
+    void readRange(int address, byte[] dst, int offset, int length) throws MemoryException;
+
+    void writeRange(int address, byte[] src, int offset, int length) throws MemoryException;
+
+    default void readFrom(ByteBuffer src, int srcIndex, int address, int length) throws MemoryException {
+        byte[] data=new byte[length];
+        src.get(srcIndex, data, 0, length);
+        writeRange(address, data, 0, length);
+    }
+
+    default void writeTo(ByteBuffer dst, int dstIndex, int address, int length) throws MemoryException {
+        byte[] data=new byte[length];
+        readRange(address, data, 0, length);
+        dst.put(dstIndex, data, 0, length);
+    }
+
+    static RangeMemory of(MainMemory memory) {
+        if (memory instanceof RangeMemory) {
+            return (RangeMemory) memory;
+        }
+        return new MainMemoryRanges(memory);
+    }
+}
@@ -0,0 +1,40 @@
+package vmmanager;
+
+public interface ReplacementPolicy {
+
+    void onAccess(int page, int frame);
+
+    void onFault(int page, int frame);
+
+    int selectVictim(int incomingPage);
+
+    void onRemove(int frame);
+
+    String name();
+
+    default int[] residentOrder() {
+        return null;
+    }
+
+    static ReplacementPolicy create(String name, int numFrames) {
+        switch (name.toUpperCase()) {
+            case "FIFO":
+                return new FifoPolicy(numFrames);
+            case "LRU":
+                return new LruPolicy(numFrames);
+            case "CLOCK":
+                return new ClockPolicy(numFrames);
+            case "SECOND_CHANCE":
+            case "SECOND-CHANCE":
+                return new SecondChancePolicy(numFrames);
+            case "ARC":
+                return new ArcPolicy(numFrames);
+            case "2Q":
+                return new TwoQueuePolicy(numFrames);
+            case "LIRS":
+                return new LirsPolicy(numFrames);
+            default:
+                throw new IllegalArgumentException("Unknown replacement policy: " + name);
+        }
+    }
+}
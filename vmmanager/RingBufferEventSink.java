@@ -0,0 +1,107 @@
+package vmmanager;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class RingBufferEventSink implements VmEventSink {
+
+    public static final int HIT=1;
+    public static final int FAULT=2;
+    public static final int EVICT_CLEAN=3;
+    public static final int EVICT_DIRTY=4;
+    public static final int WRITE_BACK=5;
+    public static final int READ=6;
+    public static final int WRITE=7;
+
+    private static final long FIELD_MASK=(1L << 30) - 1;
+
+    private int mask;
+    private AtomicLongArray events;
+    private AtomicLongArray stamps;
+    private AtomicLong nextSequence=new AtomicLong();
+
+    public RingBufferEventSink(int capacity) {
+        int size=capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        mask=size - 1;
+        events=new AtomicLongArray(size);
+        stamps=new AtomicLongArray(size);
+        for (int i=0; i < size; i++) {
+            stamps.set(i, -1);
+        }
+    }
+
+    public void pageHit(int page, int frame) {
+        publish(HIT, page, frame);
+    }
+
+    public void pageFault(int page, int frame) {
+        publish(FAULT, page, frame);
+    }
+
+    public void pageEvicted(int page, int frame, boolean dirty) {
+        publish(dirty ? EVICT_DIRTY : EVICT_CLEAN, page, frame);
+    }
+
+    public void pageWrittenBack(int page, int frame) {
+        publish(WRITE_BACK, page, frame);
+    }
+
+    public void memoryRead(int physicalAddress, byte value) {
+        publish(READ, physicalAddress, value & 0xFF);
+    }
+
+    public void memoryWritten(int physicalAddress, byte value) {
+        publish(WRITE, physicalAddress, value & 0xFF);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public long getPublishedCount() {
+        return nextSequence.get();
+    }
+
+    public long getOverwrittenCount() {
+        return Math.max(0, nextSequence.get() - capacity());
+    }
+
+    public long[] snapshot() {
+        long end=nextSequence.get();
+        long start=Math.max(0, end - capacity());
+        long[] result=new long[(int) (end - start)];
+        int count=0;
+        for (long sequence=start; sequence < end; sequence++) {
+            int slot=(int) (sequence & mask);
+            if (stamps.get(slot) != sequence) {
+                continue;
+            }
+            long event=events.get(slot);
+            if (stamps.get(slot) == sequence) {
+                result[count++]=event;
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    public static int type(long event) {
+        return (int) (event >>> 60);
+    }
+
+    public static int first(long event) {
+        return (int) ((event >>> 30) & FIELD_MASK);
+    }
+
+    public static int second(long event) {
+        return (int) (event & FIELD_MASK);
+    }
+
+    private void publish(int type, int first, int second) {
+        long sequence=nextSequence.getAndIncrement();
+        int slot=(int) (sequence & mask);
+        stamps.set(slot, -1);
+        events.set(slot, ((long) type << 60) | ((first & FIELD_MASK) << 30) | (second & FIELD_MASK));
+        stamps.set(slot, sequence);
+    }
+}
@@ -0,0 +1,43 @@
+package vmmanager;
+
+public class SecondChancePolicy implements ReplacementPolicy {
+
+    private LruList queue;
+    private boolean[] referenced;
+
+    public SecondChancePolicy(int numFrames) {
+        queue=new LruList(numFrames);
+        referenced=new boolean[numFrames];
+    }
+
+    public void onAccess(int page, int frame) {
+        referenced[frame]=true;
+    }
+
+    public void onFault(int page, int frame) {
+        referenced[frame]=false;
+        queue.touch(frame);
+    }
+
+    public int selectVictim(int incomingPage) {
+        int frame=queue.eldest();
+        while (frame != -1 && referenced[frame]) {
+            referenced[frame]=false;
+            queue.touch(frame);
+            frame=queue.eldest();
+        }
+        if (frame != -1) {
+            queue.remove(frame);
+        }
+        return frame;
+    }
+
+    public void onRemove(int frame) {
+        queue.remove(frame);
+        referenced[frame]=false;
+    }
+
+    public String name() {
+        return "SECOND_CHANCE";
+    }
+}
@@ -0,0 +1,68 @@
+package vmmanager;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntPredicate;
+
+public class StripedClock {
+
+    private int numFrames;
+    private int stripes;
+    private AtomicIntegerArray referenced;
+    private ReentrantLock[] locks;
+    private int[] hands;
+
+    public StripedClock(int numFrames, int stripes) {
+        this.numFrames=numFrames;
+        this.stripes=stripes;
+        referenced=new AtomicIntegerArray(numFrames);
+        locks=new ReentrantLock[stripes];
+        hands=new int[stripes];
+        for (int s=0; s < stripes; s++) {
+            locks[s]=new ReentrantLock();
+        }
+    }
+
+    public void reference(int frame) {
+        if (referenced.get(frame) == 0) {
+            referenced.lazySet(frame, 1);
+        }
+    }
+
+    public void clear(int frame) {
+        referenced.lazySet(frame, 0);
+    }
+
+    public int selectVictim(int home, IntPredicate claim) {
+        for (int i=0; i < stripes; i++) {
+            int victim=sweep((home + i) % stripes, claim);
+            if (victim != -1) {
+                return victim;
+            }
+        }
+        return -1;
+    }
+
+    private int sweep(int s, IntPredicate claim) {
+        int size=(numFrames - s + stripes - 1) / stripes;
+        if (size <= 0) {
+            return -1;
+        }
+        ReentrantLock lock=locks[s];
+        lock.lock();
+        try {
+            for (int step=0; step < 2 * size; step++) {
+                int frame=s + hands[s] * stripes;
+                hands[s]=(hands[s] + 1) % size;
+                if (referenced.get(frame) != 0) {
+                    referenced.set(frame, 0);
+                } else if (claim.test(frame)) {
+                    return frame;
+                }
+            }
+            return -1;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package vmmanager;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+public class StripedFrameAllocator {
+
+    private int stripes;
+    private ReentrantLock[] locks;
+    private int[][] stacks;
+    private int[] counts;
+
+    public StripedFrameAllocator(int numFrames, int stripes) {
+        this.stripes=stripes;
+        locks=new ReentrantLock[stripes];
+        stacks=new int[stripes][];
+        counts=new int[stripes];
+        for (int s=0; s < stripes; s++) {
+            locks[s]=new ReentrantLock();
+            stacks[s]=new int[(numFrames + stripes - 1) / stripes];
+        }
+        for (int frame=numFrames - 1; frame >= 0; frame--) {
+            int s=frame % stripes;
+            stacks[s][counts[s]++]=frame;
+        }
+    }
+
+    public int allocate(int home) {
+        for (int i=0; i < stripes; i++) {
+            int s=(home + i) % stripes;
+            ReentrantLock lock=locks[s];
+            lock.lock();
+            try {
+                if (counts[s] > 0) {
+                    return stacks[s][--counts[s]];
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return -1;
+    }
+
+    public void release(int frame) {
+        int s=frame % stripes;
+        ReentrantLock lock=locks[s];
+        lock.lock();
+        try {
+            stacks[s][counts[s]++]=frame;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package vmmanager;
+
+import java.util.Arrays;
+
+public class SuperpageTable {
+
+    private int order;
+    private int size;
+    private int mask;
+    private int promoteAccesses;
+    private boolean faultIn;
+
+    private int[] baseFrame;
+    private int[] resident;
+    private int[] hot;
+    private boolean[] demoted;
+    private int[] accesses;
+    private Tlb tlb;
+    private int promotedCount=0;
+
+    private long promotionCount=0;
+    private long demotionCount=0;
+    private long migratedPageCount=0;
+    private long superpageFaultCount=0;
+    private long superpageTransferredBytes=0;
+    private long baseWalkCount=0;
+    private long superpageWalkCount=0;
+
+    public SuperpageTable(int numPages, int numFrames, int order, int promoteAccesses, boolean faultIn, Tlb tlb) {
+        this.order=order;
+        this.size=1 << order;
+        this.mask=size - 1;
+        this.promoteAccesses=Math.max(1, promoteAccesses);
+        this.faultIn=faultIn;
+        this.tlb=tlb;
+        baseFrame=new int[numPages >> order];
+        Arrays.fill(baseFrame, -1);
+        resident=new int[numPages >> order];
+        hot=new int[numPages >> order];
+        demoted=new boolean[numPages >> order];
+        accesses=new int[numFrames];
+    }
+
+    public static SuperpageTable create(VmOptions options, int numPages, int numFrames) {
+        if (options.hugePageOrder <= 0) {
+            return null;
+        }
+        if (options.hugePageOrder >= 31 || 1 << options.hugePageOrder > Math.min(numPages, numFrames)) {
+            throw new IllegalArgumentException("Superpage of 2^" + options.hugePageOrder
+                    + " pages does not fit in " + Math.min(numPages, numFrames) + " pages");
+        }
+        Tlb tlb=new Tlb(options.hugeTlbEntries, 0, options.tlbReplacement);
+        return new SuperpageTable(numPages, numFrames, options.hugePageOrder, options.hugePagePromoteAccesses,
+                options.hugePageFaultIn, tlb);
+    }
+
+    public int order() {
+        return order;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int region(int page) {
+        return page >> order;
+    }
+
+    public int firstPage(int region) {
+        return region << order;
+    }
+
+    public int lookup(int page) {
+        int frame=tlb.lookup(page >> order);
+        return frame == -1 ? -1 : frame + (page & mask);
+    }
+
+    public boolean isPromoted(int region) {
+        return baseFrame[region] != -1;
+    }
+
+    public int baseFrame(int region) {
+        return baseFrame[region];
+    }
+
+    public void recordWalk(int page) {
+        if (baseFrame[page >> order] != -1) {
+            superpageWalkCount++;
+            tlb.insert(page >> order, baseFrame[page >> order]);
+        } else {
+            baseWalkCount++;
+        }
+    }
+
+    public boolean recordAccess(int page, int frame) {
+        if (accesses[frame] >= promoteAccesses) {
+            return false;
+        }
+        if (++accesses[frame] < promoteAccesses) {
+            return false;
+        }
+        int region=page >> order;
+        return ++hot[region] == size && baseFrame[region] == -1;
+    }
+
+    public void onMap(int page, int frame) {
+        resident[page >> order]++;
+        accesses[frame]=0;
+    }
+
+    public void onUnmap(int page, int frame) {
+        int region=page >> order;
+        resident[region]--;
+        if (accesses[frame] >= promoteAccesses) {
+            hot[region]--;
+        }
+        accesses[frame]=0;
+    }
+
+    public void onSwap(int frameA, int frameB) {
+        int count=accesses[frameA];
+        accesses[frameA]=accesses[frameB];
+        accesses[frameB]=count;
+        migratedPageCount+=2;
+    }
+
+    public void onMove(int from, int to) {
+        accesses[to]=accesses[from];
+        accesses[from]=0;
+        migratedPageCount++;
+    }
+
+    public boolean canFaultIn(int page) {
+        int region=page >> order;
+        return faultIn && demoted[region] && resident[region] == 0;
+    }
+
+    public void promote(int region, int frame) {
+        baseFrame[region]=frame;
+        tlb.insert(region, frame);
+        promotedCount++;
+        promotionCount++;
+    }
+
+    public void demote(int region) {
+        baseFrame[region]=-1;
+        tlb.invalidate(region);
+        demoted[region]=true;
+        promotedCount--;
+        demotionCount++;
+    }
+
+    public void recordSuperpageFault(long bytes) {
+        superpageFaultCount++;
+        superpageTransferredBytes+=bytes;
+    }
+
+    public int getPromotedCount() {
+        return promotedCount;
+    }
+
+    public long getPromotionCount() {
+        return promotionCount;
+    }
+
+    public long getDemotionCount() {
+        return demotionCount;
+    }
+
+    public long getMigratedPageCount() {
+        return migratedPageCount;
+    }
+
+    public long getSuperpageFaultCount() {
+        return superpageFaultCount;
+    }
+
+    public long getSuperpageTransferredBytes() {
+        return superpageTransferredBytes;
+    }
+
+    public long getBaseWalkCount() {
+        return baseWalkCount;
+    }
+
+    public long getSuperpageWalkCount() {
+        return superpageWalkCount;
+    }
+
+    public long getTlbHitCount() {
+        return tlb.getHitCount();
+    }
+
+    public int getTlbEntries() {
+        return tlb.size();
+    }
+}
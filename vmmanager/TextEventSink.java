@@ -0,0 +1,55 @@
+package vmmanager;
+
+import vmsimulation.BitwiseToolbox;
+
+import java.io.PrintStream;
+
+public class TextEventSink implements VmEventSink {
+
+    private PrintStream out;
+    private int addressBits;
+    private String readPrefix;
+    private String writePrefix;
+
+    public TextEventSink(int addressBits, boolean physical) {
+        this(null, addressBits, physical);
+    }
+
+    public TextEventSink(PrintStream out, int addressBits, boolean physical) {
+        this.out=out;
+        this.addressBits=addressBits;
+        this.readPrefix=physical ? "RAM read: @" : "RAM: @";
+        this.writePrefix=physical ? "RAM write: @" : "RAM: @";
+    }
+
+    public void pageHit(int page, int frame) {
+        out().println("Page " + page + " is in memory");
+    }
+
+    public void pageFault(int page, int frame) {
+        out().println("Bringing page " + page + " into frame " + frame);
+    }
+
+    public void pageEvicted(int page, int frame, boolean dirty) {
+        if (dirty) {
+            out().println("Evicting page " + page);
+        } else {
+            out().println("Evicting page " + page + " (NOT DIRTY)");
+        }
+    }
+
+    public void pageWrittenBack(int page, int frame) {
+    }
+
+    public void memoryRead(int physicalAddress, byte value) {
+        out().println(readPrefix + BitwiseToolbox.getBitString(physicalAddress, addressBits - 1) + " --> " + value);
+    }
+
+    public void memoryWritten(int physicalAddress, byte value) {
+        out().println(writePrefix + BitwiseToolbox.getBitString(physicalAddress, addressBits - 1) + " <-- " + value);
+    }
+
+    private PrintStream out() {
+        return out != null ? out : System.out;
+    }
+}
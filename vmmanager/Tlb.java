@@ -0,0 +1,130 @@
+package vmmanager;
+
+import java.util.Random;
+
+public class Tlb {
+
+    private static final int INVALID=-1;
+
+    private int sets;
+    private int ways;
+    private boolean randomReplacement;
+
+    private int[] pages;
+    private int[] frames;
+    private long[] lastUse;
+    private long clock=0;
+    private Random random=new Random(0);
+
+    private long hitCount=0;
+    private long missCount=0;
+
+    public Tlb(int entries, int ways, String replacement) {
+        if (entries < 0) {
+            throw new IllegalArgumentException("TLB size must be >= 0");
+        }
+        if (ways <= 0 || ways > entries) {
+            ways=entries;
+        }
+        if (entries > 0 && entries % ways != 0) {
+            throw new IllegalArgumentException("TLB associativity must divide the number of entries");
+        }
+        switch (replacement.toUpperCase()) {
+            case "LRU":
+                randomReplacement=false;
+                break;
+            case "RANDOM":
+                randomReplacement=true;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown TLB replacement: " + replacement);
+        }
+        this.ways=ways;
+        this.sets=entries == 0 ? 0 : entries / ways;
+        pages=new int[entries];
+        frames=new int[entries];
+        lastUse=new long[entries];
+        for (int i=0; i < entries; i++) {
+            pages[i]=INVALID;
+        }
+    }
+
+    public int lookup(int page) {
+        if (sets == 0) {
+            return -1;
+        }
+        int base=(page % sets) * ways;
+        for (int i=base; i < base + ways; i++) {
+            if (pages[i] == page) {
+                lastUse[i]=++clock;
+                hitCount++;
+                return frames[i];
+            }
+        }
+        missCount++;
+        return -1;
+    }
+
+    public void insert(int page, int frame) {
+        if (sets == 0) {
+            return;
+        }
+        int base=(page % sets) * ways;
+        int slot=-1;
+        for (int i=base; i < base + ways; i++) {
+            if (pages[i] == page || pages[i] == INVALID) {
+                slot=i;
+                break;
+            }
+        }
+        if (slot == -1) {
+            if (randomReplacement) {
+                slot=base + random.nextInt(ways);
+            } else {
+                slot=base;
+                for (int i=base + 1; i < base + ways; i++) {
+                    if (lastUse[i] < lastUse[slot]) {
+                        slot=i;
+                    }
+                }
+            }
+        }
+        pages[slot]=page;
+        frames[slot]=frame;
+        lastUse[slot]=++clock;
+    }
+
+    public void invalidate(int page) {
+        if (sets == 0) {
+            return;
+        }
+        int base=(page % sets) * ways;
+        for (int i=base; i < base + ways; i++) {
+            if (pages[i] == page) {
+                pages[i]=INVALID;
+            }
+        }
+    }
+
+    public void flush() {
+        for (int i=0; i < pages.length; i++) {
+            pages[i]=INVALID;
+        }
+    }
+
+    public int size() {
+        return pages.length;
+    }
+
+    public int associativity() {
+        return ways;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+}
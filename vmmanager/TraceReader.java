@@ -0,0 +1,99 @@
+package vmmanager;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class TraceReader implements AutoCloseable {
+
+    private static final long DEFAULT_WINDOW=1L << 26;
+
+    private FileChannel channel;
+    private long fileSize;
+    private long window;
+    private long windowStart;
+    private MappedByteBuffer buffer;
+    private long recordCount;
+
+    private int address=0;
+    private boolean write;
+    private byte value;
+
+    public TraceReader(Path file) throws IOException {
+        this(file, DEFAULT_WINDOW);
+    }
+
+    public TraceReader(Path file, long window) throws IOException {
+        channel=FileChannel.open(file, StandardOpenOption.READ);
+        fileSize=channel.size();
+        this.window=Math.max(window, 1L << 16);
+        map(0);
+        if (fileSize < TraceWriter.HEADER_SIZE || buffer.getInt() != TraceWriter.MAGIC) {
+            channel.close();
+            throw new IOException("Trace: " + file + " is not a trace file");
+        }
+        if (buffer.getInt() != TraceWriter.VERSION) {
+            channel.close();
+            throw new IOException("Trace: unsupported trace version");
+        }
+        recordCount=buffer.getLong();
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public boolean next() throws IOException {
+        if (buffer.remaining() < TraceWriter.MAX_RECORD_SIZE && windowStart + buffer.limit() < fileSize) {
+            map(windowStart + buffer.position());
+        }
+        if (!buffer.hasRemaining()) {
+            return false;
+        }
+        long bits=0;
+        int shift=0;
+        byte b;
+        do {
+            if (!buffer.hasRemaining()) {
+                throw new IOException("Trace: truncated record");
+            }
+            b=buffer.get();
+            bits|=(long) (b & 0x7F) << shift;
+            shift+=7;
+        } while (b < 0);
+        write=(bits & 1) != 0;
+        long zigzag=bits >>> 1;
+        address+=(int) ((zigzag >>> 1) ^ -(zigzag & 1));
+        if (write) {
+            if (!buffer.hasRemaining()) {
+                throw new IOException("Trace: truncated record");
+            }
+            value=buffer.get();
+        }
+        return true;
+    }
+
+    public int address() {
+        return address;
+    }
+
+    public boolean isWrite() {
+        return write;
+    }
+
+    public byte value() {
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void map(long position) throws IOException {
+        windowStart=position;
+        buffer=channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(window, fileSize - position));
+    }
+}
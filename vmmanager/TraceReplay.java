@@ -0,0 +1,150 @@
+package vmmanager;
+
+import vmsimulation.BackingStore;
+import vmsimulation.MainMemory;
+import vmsimulation.MemoryException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class TraceReplay implements AutoCloseable {
+
+    private VirtualMemoryManager vm;
+
+    public TraceReplay(String version, int ramSize, int diskSize, int pageSize, int seed,
+                       VmOptions options) throws Exception {
+        MainMemory memory=new MainMemory(ramSize);
+        BackingStore disk=version.equals("V0") ? null : new BackingStore(diskSize, pageSize, seed);
+        vm=VirtualMemoryManager.load(version, memory, disk, pageSize, options);
+    }
+
+    public VirtualMemoryManager getManager() {
+        return vm;
+    }
+
+    public byte readByte(int address) throws MemoryException {
+        return vm.read(address);
+    }
+
+    public void writeByte(int address, byte value) throws MemoryException {
+        vm.write(address, value);
+    }
+
+    public long replay(TraceReader reader) throws MemoryException, IOException {
+        long count=0;
+        while (reader.next()) {
+            if (reader.isWrite()) {
+                vm.write(reader.address(), reader.value());
+            } else {
+                vm.read(reader.address());
+            }
+            count++;
+        }
+        return count;
+    }
+
+    public long record(TraceWriter writer, int addressRange, int transactions, int seed, int locality) throws MemoryException, IOException {
+        Random random=new Random(seed);
+        for (int i=0; i < transactions; i++) {
+            int readAddress=generateAddress(random, addressRange, locality);
+            byte value=vm.read(readAddress);
+            value=(byte) (value + random.nextInt(255));
+            int writeAddress=generateAddress(random, addressRange, locality);
+            vm.write(writeAddress, value);
+            if (writer != null) {
+                writer.recordRead(readAddress);
+                writer.recordWrite(writeAddress, value);
+            }
+        }
+        return writer == null ? 2L * transactions : writer.getRecordCount();
+    }
+
+    public long simulate(int addressRange, int transactions, int seed, int locality) throws MemoryException, IOException {
+        return record(null, addressRange, transactions, seed, locality);
+    }
+
+    public void finish() throws MemoryException {
+        vm.writeBackAllPagesToDisk();
+        close();
+    }
+
+    @Override
+    public void close() throws MemoryException {
+        vm.close();
+    }
+
+    public int getPageFaultCount() {
+        return vm.getPageFaultCount();
+    }
+
+    public int getTransferedByteCount() {
+        return vm.getTransferedByteCount();
+    }
+
+    public long getTransferredBytes() {
+        return vm.getTransferredBytes();
+    }
+
+    private static int generateAddress(Random random, int addressRange, int locality) {
+        int address=addressRange;
+        while (address == addressRange) {
+            double distance=Math.min(100.0, Math.abs(random.nextGaussian() * (100 - locality)));
+            address=(int) (addressRange * distance / 100.0);
+        }
+        return address;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 7 || !(args[0].equals("record") && args.length == 10 || args[0].equals("replay"))) {
+            System.err.println("Usage: java vmmanager.TraceReplay record <trace> <V0-V4> <RAM> <disk> <page> <seed> <ntrans> <locality> <0|1 verbose>");
+            System.err.println("       java vmmanager.TraceReplay replay <trace> <V0-V4> <RAM> <disk> <page> <seed> [verbose]");
+            System.exit(1);
+        }
+        Path trace=Path.of(args[1]);
+        String version=args[2];
+        int ramSize=Integer.parseInt(args[3]);
+        int diskSize=Integer.parseInt(args[4]);
+        int pageSize=Integer.parseInt(args[5]);
+        int seed=Integer.parseInt(args[6]);
+        boolean recording=args[0].equals("record");
+        boolean verbose=recording ? args[9].equals("1") : args.length > 7;
+        VmOptions options=VmOptions.fromSystemProperties();
+        if (!verbose) {
+            options.events="NONE";
+        }
+        if (!recording && options.optTrace.isEmpty()) {
+            options.optTrace=args[1];
+        }
+        try {
+            TraceReplay replay=new TraceReplay(version, ramSize, diskSize, pageSize, seed, options);
+            long start=System.nanoTime();
+            long count;
+            if (recording) {
+                int addressRange=version.equals("V0") ? ramSize : diskSize;
+                try (TraceWriter writer=new TraceWriter(trace)) {
+                    count=replay.record(writer, addressRange, Integer.parseInt(args[7]), seed, Integer.parseInt(args[8]));
+                }
+            } else {
+                try (TraceReader reader=new TraceReader(trace)) {
+                    count=replay.replay(reader);
+                }
+            }
+            long elapsed=System.nanoTime() - start;
+            replay.finish();
+            System.out.println("NUM ACCESSES: " + count);
+            System.out.println("NUM PAGE FAULTS: " + replay.getPageFaultCount());
+            System.out.println("NUM BYTES TRANSFERRED: " + replay.getTransferredBytes());
+            System.out.println("ACCESSES PER SECOND: " + count * 1000000000L / Math.max(1, elapsed));
+        } catch (MemoryException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Trace: " + e.getMessage());
+            System.exit(1);
+        } catch (Throwable e) {
+            System.err.println("Dynamic class loading exception: " + e);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package vmmanager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class TraceWriter implements AutoCloseable {
+
+    static final int MAGIC=0x564D5452;
+    static final int VERSION=1;
+    static final int HEADER_SIZE=16;
+    static final int MAX_RECORD_SIZE=6;
+
+    private FileChannel channel;
+    private ByteBuffer buffer=ByteBuffer.allocateDirect(1 << 16);
+    private int lastAddress=0;
+    private long recordCount=0;
+
+    public TraceWriter(Path file) throws IOException {
+        channel=FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(0);
+    }
+
+    public void recordRead(int address) throws IOException {
+        record(address, false, (byte) 0);
+    }
+
+    public void recordWrite(int address, byte value) throws IOException {
+        record(address, true, value);
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        ByteBuffer header=ByteBuffer.allocate(8).putLong(0, recordCount);
+        channel.write(header, 8);
+        channel.close();
+    }
+
+    private void record(int address, boolean write, byte value) throws IOException {
+        if (buffer.remaining() < MAX_RECORD_SIZE) {
+            flush();
+        }
+        long delta=(long) address - lastAddress;
+        long zigzag=(delta << 1) ^ (delta >> 63);
+        long bits=(zigzag << 1) | (write ? 1 : 0);
+        while ((bits & ~0x7FL) != 0) {
+            buffer.put((byte) ((bits & 0x7F) | 0x80));
+            bits>>>=7;
+        }
+        buffer.put((byte) bits);
+        if (write) {
+            buffer.put(value);
+        }
+        lastAddress=address;
+        recordCount++;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,56 @@
+package vmmanager;
+
+public class TwoQueuePolicy implements ReplacementPolicy {
+
+    private int inLimit;
+
+    private LruList a1in;
+    private LruList am;
+    private GhostList a1out;
+
+    private int[] framePage;
+
+    public TwoQueuePolicy(int numFrames) {
+        inLimit=Math.max(1, numFrames / 4);
+        a1in=new LruList(numFrames);
+        am=new LruList(numFrames);
+        a1out=new GhostList(Math.max(1, numFrames / 2));
+        framePage=new int[numFrames];
+    }
+
+    public void onAccess(int page, int frame) {
+        if (am.contains(frame)) {
+            am.touch(frame);
+        }
+    }
+
+    public void onFault(int page, int frame) {
+        framePage[frame]=page;
+        if (a1out.remove(page)) {
+            am.touch(frame);
+        } else {
+            a1in.touch(frame);
+        }
+    }
+
+    public int selectVictim(int incomingPage) {
+        if (a1in.size() > inLimit || (am.size() == 0 && a1in.size() > 0)) {
+            int frame=a1in.eldest();
+            a1in.remove(frame);
+            a1out.add(framePage[frame]);
+            return frame;
+        }
+        int frame=am.eldest();
+        am.remove(frame);
+        return frame;
+    }
+
+    public void onRemove(int frame) {
+        a1in.remove(frame);
+        am.remove(frame);
+    }
+
+    public String name() {
+        return "2Q";
+    }
+}
@@ -0,0 +1,130 @@
+package vmmanager;
+
+import vmsimulation.BackingStore;
+import vmsimulation.MainMemory;
+import vmsimulation.MemoryException;
+
+import java.nio.ByteBuffer;
+
+public interface VirtualMemoryManager extends AutoCloseable {
+
+    Byte readByte(Integer fourByteBinaryString) throws MemoryException;
+
+    void writeByte(Integer fourByteBinaryString, Byte value) throws MemoryException;
+
+    byte read(int virtualAddress) throws MemoryException;
+
+    void write(int virtualAddress, byte value) throws MemoryException;
+
+    void printMemoryContent() throws MemoryException;
+
+    default boolean hasBackingStore() {
+        return true;
+    }
+
+    default void printDiskContent() throws MemoryException {
+    }
+
+    default void writeBackAllPagesToDisk() throws MemoryException {
+    }
+
+    default int getPageFaultCount() {
+        return 0;
+    }
+
+    default int getTransferedByteCount() {
+        return 0;
+    }
+
+    default long getTransferredBytes() {
+        return getTransferedByteCount();
+    }
+
+    @Override
+    default void close() throws MemoryException {
+    }
+
+    default int readInt(int virtualAddress) throws MemoryException {
+        return (int) readWord(virtualAddress, 4);
+    }
+
+    default void writeInt(int virtualAddress, int value) throws MemoryException {
+        writeWord(virtualAddress, value, 4);
+    }
+
+    default long readLong(int virtualAddress) throws MemoryException {
+        return readWord(virtualAddress, 8);
+    }
+
+    default void writeLong(int virtualAddress, long value) throws MemoryException {
+        writeWord(virtualAddress, value, 8);
+    }
+
+    default void readBlock(int virtualAddress, byte[] dst, int offset, int length) throws MemoryException {
+        for (int i=0; i < length; i++) {
+            dst[offset + i]=read(virtualAddress + i);
+        }
+    }
+
+    default void readBlock(int virtualAddress, ByteBuffer dst) throws MemoryException {
+        int index=dst.position();
+        int length=dst.remaining();
+        for (int i=0; i < length; i++) {
+            dst.put(index + i, read(virtualAddress + i));
+        }
+        dst.position(index + length);
+    }
+
+    default void writeBlock(int virtualAddress, byte[] src, int offset, int length) throws MemoryException {
+        for (int i=0; i < length; i++) {
+            write(virtualAddress + i, src[offset + i]);
+        }
+    }
+
+    default void writeBlock(int virtualAddress, ByteBuffer src) throws MemoryException {
+        int index=src.position();
+        int length=src.remaining();
+        for (int i=0; i < length; i++) {
+            write(virtualAddress + i, src.get(index + i));
+        }
+        src.position(index + length);
+    }
+
+    private long readWord(int virtualAddress, int size) throws MemoryException {
+        long value=0;
+        for (int i=size - 1; i >= 0; i--) {
+            value=value << 8 | (read(virtualAddress + i) & 0xFF);
+        }
+        return value;
+    }
+
+    private void writeWord(int virtualAddress, long value, int size) throws MemoryException {
+        for (int i=0; i < size; i++) {
+            write(virtualAddress + i, (byte) (value >>> 8 * i));
+        }
+    }
+
+    static VirtualMemoryManager of(Object vm) {
+        if (vm instanceof VirtualMemoryManager) {
+            return (VirtualMemoryManager) vm;
+        }
+        return new ManagerHandles(vm);
+    }
+
+    static VirtualMemoryManager load(String version, MainMemory memory, BackingStore disk, int pageSize,
+                                     VmOptions options) throws ReflectiveOperationException {
+        Class<?> vmClass=Class.forName("vmmanager.VirtualMemoryManager" + version);
+        Object vm;
+        if (disk == null) {
+            vm=options == null ? vmClass.getConstructor(MainMemory.class).newInstance(memory)
+                    : vmClass.getConstructor(MainMemory.class, VmOptions.class).newInstance(memory, options);
+        } else {
+            vm=options == null
+                    ? vmClass.getConstructor(MainMemory.class, BackingStore.class, Integer.class)
+                            .newInstance(memory, disk, pageSize)
+                    : vmClass.getConstructor(MainMemory.class, BackingStore.class, Integer.class, VmOptions.class)
+                            .newInstance(memory, disk, pageSize, options);
+        }
+        return of(vm);
+    }
+}
@@ -4,45 +4,106 @@ import vmsimulation.BitwiseToolbox;
 import vmsimulation.MainMemory;
 import vmsimulation.MemoryException;
 
-public class VirtualMemoryManagerV0 {
+import java.nio.ByteBuffer;
+
+public class VirtualMemoryManagerV0 implements VirtualMemoryManager {
 
     MainMemory memory;
 
+    private int addrBits;
+    private VmEventSink events;
+    private BlockAccess blocks;
+
     private int log2(int x) {
         return (int) (Math.log(x) / Math.log(2));
     }
 
     public VirtualMemoryManagerV0(MainMemory memory) throws MemoryException {
+        this(memory, VmOptions.fromSystemProperties());
+    }
+
+    public VirtualMemoryManagerV0(MainMemory memory, VmOptions options) throws MemoryException {
         this.memory=memory;
+        this.addrBits=log2(memory.size());
+        try {
+            this.events=VmEventSink.create(options, addrBits, true);
+        } catch (IllegalArgumentException e) {
+            throw new MemoryException(e.getMessage());
+        }
+        this.blocks=new BlockAccess(memory, memory.size(), memory.size(), page -> 0);
     }
 
     public void writeByte(Integer fourByteBinaryString, Byte value) throws MemoryException {
-        int memSize=memory.size();
-        int addrBits=log2(memSize);
-        int physicalAddress=BitwiseToolbox.extractBits(fourByteBinaryString, 0, addrBits-1);
-        memory.writeByte(physicalAddress, value.byteValue());
-        String addrBitString=BitwiseToolbox.getBitString(physicalAddress, addrBits-1);
-        System.out.println("RAM write: @"+addrBitString+" <-- "+value);
+        write(fourByteBinaryString, value);
+    }
+
+    public void write(int virtualAddress, byte value) throws MemoryException {
+        int physicalAddress=BitwiseToolbox.extractBits(virtualAddress, 0, addrBits-1);
+        memory.writeByte(physicalAddress, value);
+        events.memoryWritten(physicalAddress, value);
     }
 
     public Byte readByte(Integer fourByteBinaryString) throws MemoryException {
-        int memSize=memory.size();
-        int addrBits=log2(memSize);
-        int physicalAddress=BitwiseToolbox.extractBits(fourByteBinaryString, 0, addrBits-1);
+        return read(fourByteBinaryString);
+    }
+
+    public byte read(int virtualAddress) throws MemoryException {
+        int physicalAddress=BitwiseToolbox.extractBits(virtualAddress, 0, addrBits-1);
         byte value=memory.readByte(physicalAddress);
-        String addrBitString=BitwiseToolbox.getBitString(physicalAddress, addrBits-1);
-        System.out.println("RAM read: @"+addrBitString+" --> "+value);
+        events.memoryRead(physicalAddress, value);
         return value;
     }
 
+    public int readInt(int virtualAddress) throws MemoryException {
+        return blocks.readInt(virtualAddress);
+    }
+
+    public void writeInt(int virtualAddress, int value) throws MemoryException {
+        blocks.writeInt(virtualAddress, value);
+    }
+
+    public long readLong(int virtualAddress) throws MemoryException {
+        return blocks.readLong(virtualAddress);
+    }
+
+    public void writeLong(int virtualAddress, long value) throws MemoryException {
+        blocks.writeLong(virtualAddress, value);
+    }
+
+    public void readBlock(int virtualAddress, byte[] dst, int offset, int length) throws MemoryException {
+        blocks.read(virtualAddress, dst, offset, length);
+    }
+
+    public void readBlock(int virtualAddress, ByteBuffer dst) throws MemoryException {
+        blocks.read(virtualAddress, dst);
+    }
+
+    public void writeBlock(int virtualAddress, byte[] src, int offset, int length) throws MemoryException {
+        blocks.write(virtualAddress, src, offset, length);
+    }
+
+    public void writeBlock(int virtualAddress, ByteBuffer src) throws MemoryException {
+        blocks.write(virtualAddress, src);
+    }
+
     public void printMemoryContent() throws MemoryException {
         int memSize=memory.size();
-        int addrBits=log2(memSize);
         for (int addr=0; addr < memSize; addr++) {
             String addrBitString=BitwiseToolbox.getBitString(addr, addrBits-1);
             byte value=memory.readByte(addr);
             System.out.println(addrBitString+": "+value);
         }
     }
-}
 
+    public boolean hasBackingStore() {
+        return false;
+    }
+
+    public VmEventSink getEventSink() {
+        return events;
+    }
+
+    public void setEventSink(VmEventSink events) {
+        this.events=events;
+    }
+}
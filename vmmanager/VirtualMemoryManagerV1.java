@@ -5,13 +5,21 @@ import vmsimulation.BitwiseToolbox;
 import vmsimulation.MainMemory;
 import vmsimulation.MemoryException;
 
-public class VirtualMemoryManagerV1 {
+import java.nio.ByteBuffer;
+
+public class VirtualMemoryManagerV1 implements VirtualMemoryManager {
 
     MainMemory memory;   
     BackingStore disk;  
     Integer pageSize;    
 
-    private int[] pageTable;
+    private PageTable pageTable;
+    private int[] framePage;
+    private Tlb tlb;
+    private PageTransfer transfer;
+    private VmEventSink events;
+    private BlockAccess blocks;
+    private VmMetrics metrics=new VmMetrics();
     private int numPages;
     private int numFrames;
 
@@ -22,7 +30,7 @@ public class VirtualMemoryManagerV1 {
     private int nextFreeFrame=0;
 
     private int pageFaultCount=0;
-    private int transferredByteCount=0;
+    private long transferredByteCount=0;
 
     private int log2(int x) {
         return (int) (Math.log(x) / Math.log(2));
@@ -31,6 +39,13 @@ public class VirtualMemoryManagerV1 {
     public VirtualMemoryManagerV1(MainMemory memory,
                                   BackingStore disk,
                                   Integer pageSize) throws MemoryException {
+        this(memory, disk, pageSize, VmOptions.fromSystemProperties());
+    }
+
+    public VirtualMemoryManagerV1(MainMemory memory,
+                                  BackingStore disk,
+                                  Integer pageSize,
+                                  VmOptions options) throws MemoryException {
         this.memory=memory;
         this.disk=disk;
         this.pageSize=pageSize;
@@ -45,29 +60,62 @@ public class VirtualMemoryManagerV1 {
         this.numFrames=memSize/pageSize;
         this.numPages=diskSize/pageSize;
 
-        this.pageTable=new int[numPages];
-        for (int i=0; i<numPages; i++) {
-            pageTable[i]=-1;
+        try {
+            this.pageTable=PageTable.create(options.pageTable, numPages, numFrames);
+        } catch (IllegalArgumentException e) {
+            throw new MemoryException(e.getMessage());
+        }
+        this.framePage=new int[numFrames];
+        for (int i=0; i<numFrames; i++) {
+            framePage[i]=-1;
+        }
+        try {
+            tlb=new Tlb(options.tlbEntries, options.tlbWays, options.tlbReplacement);
+        } catch (IllegalArgumentException e) {
+            throw new MemoryException(e.getMessage());
+        }
+        transfer=new PageTransfer(memory, disk, pageSize);
+        try {
+            events=VmEventSink.create(options, physAddrBits, false);
+        } catch (IllegalArgumentException e) {
+            throw new MemoryException(e.getMessage());
+        }
+        if (!options.metricsMBean.isEmpty()) {
+            metrics.register(options.metricsMBean);
+        }
+        blocks=new BlockAccess(memory, pageSize, diskSize, this::ensurePageInMemory);
+    }
+
+    private int lookupFrame(int pageNumber) {
+        int frame=tlb.lookup(pageNumber);
+        if (frame==-1) {
+            frame=pageTable.lookup(pageNumber);
+            if (frame!=-1) {
+                tlb.insert(pageNumber, frame);
+            }
         }
+        return frame;
     }
 
     private int ensurePageInMemory(int pageNumber) throws MemoryException {
-        int frame=pageTable[pageNumber];
+        int frame=lookupFrame(pageNumber);
 
         if (frame==-1) {
+            long start=System.nanoTime();
             frame=nextFreeFrame;
-            System.out.println("Bringing page "+pageNumber+" into frame "+frame);
-            byte[] pageData=disk.readPage(pageNumber);
-            int baseAddr = frame * pageSize;
-            for (int i=0; i<pageSize; i++) {
-                memory.writeByte(baseAddr + i, pageData[i]);
-            }
-            pageTable[pageNumber]=frame;
+            events.pageFault(pageNumber, frame);
+            transfer.load(pageNumber, frame);
+            pageTable.map(pageNumber, frame);
+            framePage[frame]=pageNumber;
+            tlb.insert(pageNumber, frame);
             nextFreeFrame++;
             pageFaultCount++;
             transferredByteCount+=pageSize; 
+            metrics.recordPageIn(pageSize);
+            metrics.recordFault(System.nanoTime() - start);
         } else {
-            System.out.println("Page "+pageNumber+" is in memory");
+            events.pageHit(pageNumber, frame);
+            metrics.recordHit();
         }
 
         return frame;
@@ -82,28 +130,64 @@ public class VirtualMemoryManagerV1 {
     }
 
     public void writeByte(Integer fourByteBinaryString, Byte value) throws MemoryException {
-        int va=fourByteBinaryString;
-        int pageNumber=getPageNumber(va);
-        int offset=getOffset(va);
+        write(fourByteBinaryString, value);
+    }
+
+    public void write(int virtualAddress, byte value) throws MemoryException {
+        int pageNumber=getPageNumber(virtualAddress);
+        int offset=getOffset(virtualAddress);
         int frame=ensurePageInMemory(pageNumber);
         int physicalAddress=frame*pageSize+offset;
-        memory.writeByte(physicalAddress, value.byteValue());
-        String bitString = BitwiseToolbox.getBitString(physicalAddress, physAddrBits - 1);
-        System.out.println("RAM: @"+bitString+" <-- " + value);
+        memory.writeByte(physicalAddress, value);
+        events.memoryWritten(physicalAddress, value);
     }
 
     public Byte readByte(Integer fourByteBinaryString) throws MemoryException {
-        int va=fourByteBinaryString;
-        int pageNumber=getPageNumber(va);
-        int offset=getOffset(va);
+        return read(fourByteBinaryString);
+    }
+
+    public byte read(int virtualAddress) throws MemoryException {
+        int pageNumber=getPageNumber(virtualAddress);
+        int offset=getOffset(virtualAddress);
         int frame=ensurePageInMemory(pageNumber);
         int physicalAddress=frame*pageSize+offset;
         byte value=memory.readByte(physicalAddress);
-        String bitString = BitwiseToolbox.getBitString(physicalAddress, physAddrBits - 1);
-        System.out.println("RAM: @"+bitString+" --> " + value);
+        events.memoryRead(physicalAddress, value);
         return value;
     }
 
+    public int readInt(int virtualAddress) throws MemoryException {
+        return blocks.readInt(virtualAddress);
+    }
+
+    public void writeInt(int virtualAddress, int value) throws MemoryException {
+        blocks.writeInt(virtualAddress, value);
+    }
+
+    public long readLong(int virtualAddress) throws MemoryException {
+        return blocks.readLong(virtualAddress);
+    }
+
+    public void writeLong(int virtualAddress, long value) throws MemoryException {
+        blocks.writeLong(virtualAddress, value);
+    }
+
+    public void readBlock(int virtualAddress, byte[] dst, int offset, int length) throws MemoryException {
+        blocks.read(virtualAddress, dst, offset, length);
+    }
+
+    public void readBlock(int virtualAddress, ByteBuffer dst) throws MemoryException {
+        blocks.read(virtualAddress, dst);
+    }
+
+    public void writeBlock(int virtualAddress, byte[] src, int offset, int length) throws MemoryException {
+        blocks.write(virtualAddress, src, offset, length);
+    }
+
+    public void writeBlock(int virtualAddress, ByteBuffer src) throws MemoryException {
+        blocks.write(virtualAddress, src);
+    }
+
     public void printMemoryContent() throws MemoryException {
         int memSize=memory.size();
         for (int addr=0; addr<memSize; addr++) {
@@ -131,16 +215,13 @@ public class VirtualMemoryManagerV1 {
     }
 
     public void writeBackAllPagesToDisk() throws MemoryException {
-        for (int page=0; page<numPages; page++) {
-            int frame=pageTable[page];
-            if (frame!=-1) {
-                byte[] data=new byte[pageSize];
-                int baseAddr=frame*pageSize;
-                for (int i=0; i<pageSize; i++) {
-                    data[i]=memory.readByte(baseAddr+i);
-                }
-                disk.writePage(page, data);
+        for (int frame=0; frame<numFrames; frame++) {
+            int page=framePage[frame];
+            if (page!=-1) {
+                transfer.store(page, frame);
+                events.pageWrittenBack(page, frame);
                 transferredByteCount+=pageSize; 
+                metrics.recordPageOut(pageSize);
             }
         }
     }
@@ -150,6 +231,30 @@ public class VirtualMemoryManagerV1 {
     }
 
     public int getTransferedByteCount() {
+        return (int) Math.min(getTransferredBytes(), Integer.MAX_VALUE);
+    }
+
+    public long getTransferredBytes() {
         return transferredByteCount;
     }
+
+    public VmMetrics getMetrics() {
+        return metrics;
+    }
+
+    public VmEventSink getEventSink() {
+        return events;
+    }
+
+    public void setEventSink(VmEventSink events) {
+        this.events=events;
+    }
+
+    public long getTlbHitCount() {
+        return tlb.getHitCount();
+    }
+
+    public long getTlbMissCount() {
+        return tlb.getMissCount();
+    }
 }
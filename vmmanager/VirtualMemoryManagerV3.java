@@ -5,16 +5,22 @@ import vmsimulation.BitwiseToolbox;
 import vmsimulation.MainMemory;
 import vmsimulation.MemoryException;
 
-import java.util.LinkedList;
-import java.util.Queue;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 
-public class VirtualMemoryManagerV3 {
+public class VirtualMemoryManagerV3 implements VirtualMemoryManager {
 
     MainMemory memory;
     BackingStore disk;
     Integer pageSize;
 
-    private int[] pageTable;      
+    private PageTable pageTable;      
+    private Tlb tlb;
+    private PageTransfer transfer;
+    private CompressedPageCache cache;
+    private VmEventSink events;
+    private BlockAccess blocks;
+    private VmMetrics metrics=new VmMetrics();
     private int numPages;
     private int numFrames;
 
@@ -22,16 +28,25 @@ public class VirtualMemoryManagerV3 {
     private int physAddrBits;
     private int virtAddrBits;
 
-    private Queue<Integer> fifoQueue=new LinkedList<>();
+    private ReplacementPolicy policy;
+    private int[] framePage;
+    private int nextFreeFrame=0;
 
     private boolean[] dirty;
 
     private int pageFaultCount=0;
-    private int transferredByteCount=0;
+    private long transferredByteCount=0;
 
     public VirtualMemoryManagerV3(MainMemory memory,
                                   BackingStore disk,
                                   Integer pageSize) throws MemoryException {
+        this(memory, disk, pageSize, VmOptions.fromSystemProperties());
+    }
+
+    public VirtualMemoryManagerV3(MainMemory memory,
+                                  BackingStore disk,
+                                  Integer pageSize,
+                                  VmOptions options) throws MemoryException {
 
         this.memory=memory;
         this.disk=disk;
@@ -46,12 +61,33 @@ public class VirtualMemoryManagerV3 {
         this.numFrames=memSize / pageSize;
         this.numPages=diskSize / pageSize;
 
-        pageTable=new int[numPages];
-        dirty=new boolean[numPages];
-        for (int i=0; i < numPages; i++) {
-            pageTable[i]=-1;   
-            dirty[i]=false;    
+        try {
+            pageTable=PageTable.create(options.pageTable, numPages, numFrames);
+        } catch (IllegalArgumentException e) {
+            throw new MemoryException(e.getMessage());
+        }
+        dirty=new boolean[numFrames];
+        framePage=new int[numFrames];
+        for (int i=0; i < numFrames; i++) {
+            framePage[i]=-1;
+        }
+        policy=new FifoPolicy(numFrames);
+        try {
+            tlb=new Tlb(options.tlbEntries, options.tlbWays, options.tlbReplacement);
+        } catch (IllegalArgumentException e) {
+            throw new MemoryException(e.getMessage());
+        }
+        cache=CompressedPageCache.create(options, disk, pageSize, numPages);
+        transfer=new PageTransfer(memory, disk, pageSize, cache);
+        try {
+            events=VmEventSink.create(options, physAddrBits, false);
+        } catch (IllegalArgumentException e) {
+            throw new MemoryException(e.getMessage());
+        }
+        if (!options.metricsMBean.isEmpty()) {
+            metrics.register(options.metricsMBean);
         }
+        blocks=new BlockAccess(memory, pageSize, diskSize, this::ensurePageInMemory, this::markDirty);
     }
 
     private int log2(int x) {
@@ -66,86 +102,148 @@ public class VirtualMemoryManagerV3 {
         return BitwiseToolbox.extractBits(virtualAddress, 0, offsetBits - 1);
     }
 
+    private int lookupFrame(int pageNumber) {
+        int frame=tlb.lookup(pageNumber);
+        if (frame == -1) {
+            frame=pageTable.lookup(pageNumber);
+            if (frame != -1) {
+                tlb.insert(pageNumber, frame);
+            }
+        }
+        return frame;
+    }
+
     private int ensurePageInMemory(int pageNumber) throws MemoryException {
-        int frame=pageTable[pageNumber];
+        int frame=lookupFrame(pageNumber);
         if (frame != -1) {
-            System.out.println("Page " + pageNumber + " is in memory");
+            events.pageHit(pageNumber, frame);
+            policy.onAccess(pageNumber, frame);
+            metrics.recordHit();
             return frame;
         }
         pageFaultCount++;
+        long start=System.nanoTime();
+        frame=serviceFault(pageNumber);
+        metrics.recordFault(System.nanoTime() - start);
+        return frame;
+    }
 
-        if (fifoQueue.size() < numFrames) {
-            frame=fifoQueue.size(); 
-            System.out.println("Bringing page " + pageNumber + " into frame " + frame);
+    private int serviceFault(int pageNumber) throws MemoryException {
+        if (nextFreeFrame < numFrames) {
+            int frame=nextFreeFrame;
+            nextFreeFrame++;
+            events.pageFault(pageNumber, frame);
             loadPageIntoFrame(pageNumber, frame);
-            dirty[pageNumber]=false;
-            fifoQueue.add(pageNumber);
-            pageTable[pageNumber]=frame;
+            dirty[frame]=false;
+            framePage[frame]=pageNumber;
+            policy.onFault(pageNumber, frame);
+            pageTable.map(pageNumber, frame);
+            tlb.insert(pageNumber, frame);
             return frame;
         }
 
-        int victimPage = fifoQueue.remove();    
-        int victimFrame = pageTable[victimPage];
-        if (!dirty[victimPage]) {
-            System.out.println("Evicting page " + victimPage + " (NOT DIRTY)");
+        int victimFrame = policy.selectVictim(pageNumber);
+        int victimPage = framePage[victimFrame];
+        metrics.recordEviction(dirty[victimFrame]);
+        if (!dirty[victimFrame]) {
+            events.pageEvicted(victimPage, victimFrame, false);
         } 
         else {
-            System.out.println("Evicting page " + victimPage);
+            events.pageEvicted(victimPage, victimFrame, true);
             writePageToDisk(victimPage, victimFrame);
-            dirty[victimPage]=false; 
+            dirty[victimFrame]=false; 
         }
-        pageTable[victimPage]=-1;
-        System.out.println("Bringing page " + pageNumber + " into frame " + victimFrame);
+        pageTable.unmap(victimPage);
+        tlb.invalidate(victimPage);
+        events.pageFault(pageNumber, victimFrame);
         loadPageIntoFrame(pageNumber, victimFrame);
-        dirty[pageNumber]=false;
-        fifoQueue.add(pageNumber);
-        pageTable[pageNumber]=victimFrame;
+        dirty[victimFrame]=false;
+        framePage[victimFrame]=pageNumber;
+        policy.onFault(pageNumber, victimFrame);
+        pageTable.map(pageNumber, victimFrame);
+        tlb.insert(pageNumber, victimFrame);
         return victimFrame;
     }
 
     private void loadPageIntoFrame(int pageNumber, int frame) throws MemoryException {
-        byte[] pageData=disk.readPage(pageNumber);
-        int baseAddr=frame * pageSize;
-        for (int i=0; i < pageSize; i++) {
-            memory.writeByte(baseAddr + i, pageData[i]);
-        }
-        transferredByteCount+=pageSize; 
+        if (transfer.load(pageNumber, frame)) {
+            transferredByteCount+=pageSize;
+            metrics.recordPageIn(pageSize);
+        } 
     }
 
     private void writePageToDisk(int pageNumber, int frame) throws MemoryException {
-        byte[] data=new byte[pageSize];
-        int baseAddr=frame * pageSize;
-        for (int i=0; i < pageSize; i++) {
-            data[i]=memory.readByte(baseAddr + i);
+        if (transfer.store(pageNumber, frame)) {
+            transferredByteCount+=pageSize;
+            metrics.recordPageOut(pageSize);
         }
-        disk.writePage(pageNumber, data);
-        transferredByteCount+=pageSize; 
+        events.pageWrittenBack(pageNumber, frame); 
+    }
+
+    private void markDirty(int frame) {
+        dirty[frame]=true;
     }
 
     public void writeByte(Integer fourByteBinaryString, Byte value) throws MemoryException {
-        int va=fourByteBinaryString;
-        int pageNumber=getPageNumber(va);
-        int offset=getOffset(va);
+        write(fourByteBinaryString, value);
+    }
+
+    public void write(int virtualAddress, byte value) throws MemoryException {
+        int pageNumber=getPageNumber(virtualAddress);
+        int offset=getOffset(virtualAddress);
         int frame=ensurePageInMemory(pageNumber);
         int physicalAddress=frame * pageSize + offset;
-        memory.writeByte(physicalAddress, value.byteValue());
-        dirty[pageNumber]=true;
-        String bitString=BitwiseToolbox.getBitString(physicalAddress, physAddrBits - 1);
-        System.out.println("RAM: @" + bitString + " <-- " + value);
+        memory.writeByte(physicalAddress, value);
+        dirty[frame]=true;
+        events.memoryWritten(physicalAddress, value);
     }
 
     public Byte readByte(Integer fourByteBinaryString) throws MemoryException {
-        int va=fourByteBinaryString;
-        int pageNumber=getPageNumber(va);
-        int offset=getOffset(va);
+        return read(fourByteBinaryString);
+    }
+
+    public byte read(int virtualAddress) throws MemoryException {
+        int pageNumber=getPageNumber(virtualAddress);
+        int offset=getOffset(virtualAddress);
         int frame=ensurePageInMemory(pageNumber);
         int physicalAddress=frame * pageSize + offset;
         byte value=memory.readByte(physicalAddress);
-        String bitString=BitwiseToolbox.getBitString(physicalAddress, physAddrBits - 1);
-        System.out.println("RAM: @" + bitString + " --> " + value);
+        events.memoryRead(physicalAddress, value);
         return value;
     }
 
+    public int readInt(int virtualAddress) throws MemoryException {
+        return blocks.readInt(virtualAddress);
+    }
+
+    public void writeInt(int virtualAddress, int value) throws MemoryException {
+        blocks.writeInt(virtualAddress, value);
+    }
+
+    public long readLong(int virtualAddress) throws MemoryException {
+        return blocks.readLong(virtualAddress);
+    }
+
+    public void writeLong(int virtualAddress, long value) throws MemoryException {
+        blocks.writeLong(virtualAddress, value);
+    }
+
+    public void readBlock(int virtualAddress, byte[] dst, int offset, int length) throws MemoryException {
+        blocks.read(virtualAddress, dst, offset, length);
+    }
+
+    public void readBlock(int virtualAddress, ByteBuffer dst) throws MemoryException {
+        blocks.read(virtualAddress, dst);
+    }
+
+    public void writeBlock(int virtualAddress, byte[] src, int offset, int length) throws MemoryException {
+        blocks.write(virtualAddress, src, offset, length);
+    }
+
+    public void writeBlock(int virtualAddress, ByteBuffer src) throws MemoryException {
+        blocks.write(virtualAddress, src);
+    }
+
     public void printMemoryContent() throws MemoryException {
         int memSize=memory.size();
         for (int addr=0; addr < memSize; addr++) {
@@ -170,19 +268,47 @@ public class VirtualMemoryManagerV3 {
     }
 
     public void writeBackAllPagesToDisk() throws MemoryException {
-        for (int page=0; page < numPages; page++) {
-            int frame=pageTable[page];
-            if (frame!=-1 && dirty[page]) {
-                byte[] data=new byte[pageSize];
-                int baseAddr=frame * pageSize;
-                for (int i=0; i < pageSize; i++) {
-                    data[i]=memory.readByte(baseAddr + i);
+        for (int frame=0; frame < numFrames; frame++) {
+            int page=framePage[frame];
+            if (page!=-1 && dirty[frame]) {
+                if (transfer.store(page, frame)) {
+                    transferredByteCount += pageSize;
+                    metrics.recordPageOut(pageSize);
                 }
-                disk.writePage(page, data);
-                transferredByteCount += pageSize;
-                dirty[page] = false; 
+                events.pageWrittenBack(page, frame);
+                dirty[frame] = false; 
             }
         }
+        transfer.flush();
+    }
+
+    public void saveSnapshot(Path file) throws MemoryException {
+        ManagerSnapshot.save(file, snapshotState());
+    }
+
+    public void restoreSnapshot(Path file) throws MemoryException {
+        ManagerSnapshot.State state=snapshotState();
+        ManagerSnapshot.restore(file, state);
+        policy=state.policy;
+        nextFreeFrame=state.nextFreeFrame;
+        pageFaultCount=state.pageFaultCount;
+        transferredByteCount=state.transferredBytes;
+    }
+
+    private ManagerSnapshot.State snapshotState() throws MemoryException {
+        if (cache != null) {
+            throw new MemoryException("Snapshots cannot be combined with the compressed swap cache");
+        }
+        ManagerSnapshot.State state=new ManagerSnapshot.State(3, memory, disk, pageSize, numPages, numFrames);
+        state.pageTable=pageTable;
+        state.tlb=tlb;
+        state.framePage=framePage;
+        state.dirty=dirty;
+        state.policy=policy;
+        state.nextFreeFrame=nextFreeFrame;
+        state.pageFaultCount=pageFaultCount;
+        state.transferredBytes=transferredByteCount;
+        return state;
     }
 
     public int getPageFaultCount() {
@@ -190,6 +316,34 @@ public class VirtualMemoryManagerV3 {
     }
 
     public int getTransferedByteCount() {
-        return transferredByteCount;
+        return (int) Math.min(getTransferredBytes(), Integer.MAX_VALUE);
+    }
+
+    public long getTransferredBytes() {
+        return transferredByteCount + (cache == null ? 0 : cache.getWrittenBackBytes());
+    }
+
+    public VmMetrics getMetrics() {
+        return metrics;
+    }
+
+    public CompressedPageCache getCompressedCache() {
+        return cache;
+    }
+
+    public VmEventSink getEventSink() {
+        return events;
+    }
+
+    public void setEventSink(VmEventSink events) {
+        this.events=events;
+    }
+
+    public long getTlbHitCount() {
+        return tlb.getHitCount();
+    }
+
+    public long getTlbMissCount() {
+        return tlb.getMissCount();
     }
 }
@@ -5,13 +5,26 @@ import vmsimulation.BitwiseToolbox;
 import vmsimulation.MainMemory;
 import vmsimulation.MemoryException;
 
-public class VirtualMemoryManagerV4 {
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+public class VirtualMemoryManagerV4 implements VirtualMemoryManager {
 
     MainMemory memory;
     BackingStore disk;
     Integer pageSize;
 
-    private int[] pageTable;      
+    private PageTable pageTable;      
+    private Tlb tlb;
+    private SuperpageTable superpages;
+    private PageTransfer transfer;
+    private CompressedPageCache cache;
+    private VmEventSink events;
+    private BlockAccess blocks;
+    private Prefetcher prefetcher;
+    private WriteBackDaemon writeBack;
+    private VmMetrics metrics=new VmMetrics();
     private int numPages;
     private int numFrames;
 
@@ -21,16 +34,29 @@ public class VirtualMemoryManagerV4 {
 
     private boolean[] dirty;
 
-    private long[] lastUsed;
-    private long timeCounter=0;
+    private int[] framePage;
+    private ReplacementPolicy policy;
 
     private int nextFreeFrame=0;     
+    private int[] freeFrames;
+    private int[] freeIndex;
+    private int freeCount=0;
+    private byte[] swapBuffer;
+    private byte[] moveBuffer;
     private int pageFaultCount=0;
-    private int transferredByteCount=0;
+    private long minorFaultCount=0;
+    private long transferredByteCount=0;
 
     public VirtualMemoryManagerV4(MainMemory memory,
                                   BackingStore disk,
                                   Integer pageSize) throws MemoryException {
+        this(memory, disk, pageSize, VmOptions.fromSystemProperties());
+    }
+
+    public VirtualMemoryManagerV4(MainMemory memory,
+                                  BackingStore disk,
+                                  Integer pageSize,
+                                  VmOptions options) throws MemoryException {
 
         this.memory=memory;
         this.disk=disk;
@@ -46,16 +72,90 @@ public class VirtualMemoryManagerV4 {
         this.numFrames=memSize / pageSize;
         this.numPages=diskSize / pageSize;
 
-        pageTable=new int[numPages];
-        dirty=new boolean[numPages];
-        lastUsed=new long[numPages];
-        for (int i = 0; i < numPages; i++) {
-            pageTable[i] = -1;   
-            dirty[i] = false;   
-            lastUsed[i] = 0;     
+        try {
+            pageTable=PageTable.create(options.pageTable, numPages, numFrames);
+        } catch (IllegalArgumentException e) {
+            throw new MemoryException(e.getMessage());
+        }
+        dirty=new boolean[numFrames];
+        framePage=new int[numFrames];
+        for (int i=0; i < numFrames; i++) {
+            framePage[i]=-1;
+        }
+        policy=createPolicy(options);
+        try {
+            tlb=new Tlb(options.tlbEntries, options.tlbWays, options.tlbReplacement);
+        } catch (IllegalArgumentException e) {
+            throw new MemoryException(e.getMessage());
+        }
+        superpages=createSuperpages(options);
+        cache=CompressedPageCache.create(options, disk, pageSize, numPages);
+        transfer=new PageTransfer(memory, disk, pageSize, cache);
+        try {
+            events=VmEventSink.create(options, physAddrBits, false);
+        } catch (IllegalArgumentException e) {
+            throw new MemoryException(e.getMessage());
+        }
+        if (options.writeBackHigh > 0) {
+            int low=options.writeBackLow > 0 ? options.writeBackLow : options.writeBackHigh / 2;
+            writeBack=new WriteBackDaemon(transfer, disk, pageSize, dirty, framePage, options.writeBackHigh, low,
+                    metrics);
+        }
+        if (options.prefetchWindow > 0) {
+            prefetcher=new Prefetcher(disk, pageSize, numPages, options.prefetchWindow,
+                    page -> pageTable.lookup(page) != -1 || (writeBack != null && writeBack.isInFlight(page))
+                            || transfer.isCached(page), metrics);
+        }
+        if (!options.metricsMBean.isEmpty()) {
+            metrics.register(options.metricsMBean);
+        }
+        blocks=new BlockAccess(memory, pageSize, diskSize, this::ensurePageInMemory, this::markDirty);
+    }
+
+    private ReplacementPolicy createPolicy(VmOptions options) throws MemoryException {
+        if (!options.policy.equalsIgnoreCase("OPT")) {
+            try {
+                return ReplacementPolicy.create(options.policy, numFrames);
+            } catch (IllegalArgumentException e) {
+                throw new MemoryException(e.getMessage());
+            }
+        }
+        if (options.optTrace.isEmpty()) {
+            throw new MemoryException("OPT policy needs the future accesses: set vmmanager.opt.trace");
+        }
+        try {
+            return new OptPolicy(numFrames, OptPolicy.nextUse(Path.of(options.optTrace), pageSize, numPages));
+        } catch (IOException e) {
+            throw new MemoryException("OPT: cannot read trace: " + e.getMessage());
         }
     }
 
+    private SuperpageTable createSuperpages(VmOptions options) throws MemoryException {
+        if (options.hugePageOrder <= 0) {
+            return null;
+        }
+        if (options.writeBackHigh > 0) {
+            throw new MemoryException("Superpages cannot be combined with the write-back daemon");
+        }
+        if (policy instanceof OptPolicy) {
+            throw new MemoryException("Superpages cannot be combined with the OPT policy");
+        }
+        SuperpageTable table;
+        try {
+            table=SuperpageTable.create(options, numPages, numFrames);
+        } catch (IllegalArgumentException e) {
+            throw new MemoryException(e.getMessage());
+        }
+        freeFrames=new int[numFrames];
+        freeIndex=new int[numFrames];
+        for (int i=0; i < numFrames; i++) {
+            freeIndex[i]=-1;
+        }
+        swapBuffer=new byte[pageSize];
+        moveBuffer=new byte[pageSize];
+        return table;
+    }
+
     private int log2(int x) {
         return (int) (Math.log(x) / Math.log(2));
     }
@@ -68,101 +168,376 @@ public class VirtualMemoryManagerV4 {
         return BitwiseToolbox.extractBits(virtualAddress, 0, offsetBits - 1);
     }
 
+    private int lookupFrame(int pageNumber) {
+        if (superpages != null) {
+            int frame=superpages.lookup(pageNumber);
+            if (frame != -1) {
+                return frame;
+            }
+        }
+        int frame=tlb.lookup(pageNumber);
+        if (frame == -1) {
+            frame=pageTable.lookup(pageNumber);
+            if (superpages != null) {
+                superpages.recordWalk(pageNumber);
+                if (superpages.isPromoted(superpages.region(pageNumber))) {
+                    return frame;
+                }
+            }
+            if (frame != -1) {
+                tlb.insert(pageNumber, frame);
+            }
+        }
+        return frame;
+    }
+
+    private int recordAccess(int pageNumber, int frame) throws MemoryException {
+        if (superpages == null || !superpages.recordAccess(pageNumber, frame)) {
+            return frame;
+        }
+        promote(superpages.region(pageNumber));
+        return pageTable.lookup(pageNumber);
+    }
+
     private int ensurePageInMemory(int pageNumber) throws MemoryException {
-        int frame=pageTable[pageNumber];
+        int frame=lookupFrame(pageNumber);
         if (frame != -1) {
-            System.out.println("Page " + pageNumber + " is in memory");
-            lastUsed[pageNumber]=++timeCounter;
+            frame=recordAccess(pageNumber, frame);
+            events.pageHit(pageNumber, frame);
+            policy.onAccess(pageNumber, frame);
+            metrics.recordHit();
             return frame;
         }
-        pageFaultCount++;
+        boolean minor=prefetcher != null && prefetcher.isStaged(pageNumber);
+        long start=System.nanoTime();
+        PageFaultEvent event=new PageFaultEvent();
+        event.begin();
+        frame=serviceFault(pageNumber);
+        frame=recordAccess(pageNumber, frame);
+        if (minor) {
+            minorFaultCount++;
+            metrics.recordMinorFault();
+        } else {
+            pageFaultCount++;
+            metrics.recordFault(System.nanoTime() - start);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.page=pageNumber;
+            event.frame=frame;
+            event.manager="V4";
+            event.commit();
+        }
+        return frame;
+    }
 
-        if (nextFreeFrame < numFrames) {
-            frame=nextFreeFrame;
-            nextFreeFrame++;
-            System.out.println("Bringing page " + pageNumber + " into frame " + frame);
-            loadPageIntoFrame(pageNumber, frame);
-            dirty[pageNumber]=false;                 
-            lastUsed[pageNumber]=++timeCounter;      
-            pageTable[pageNumber]=frame;
-            return frame;
+    private int serviceFault(int pageNumber) throws MemoryException {
+        if (superpages != null && freeCount == 0 && nextFreeFrame == numFrames && superpages.canFaultIn(pageNumber)) {
+            return serviceSuperpageFault(pageNumber);
+        }
+        int frame=takeFreeFrame();
+        if (frame == -1) {
+            frame=policy.selectVictim(pageNumber);
+            evict(frame, pageNumber);
         }
+        installPage(pageNumber, frame);
+        tlb.insert(pageNumber, frame);
+        if (prefetcher != null) {
+            prefetcher.afterFault(pageNumber);
+        }
+        return frame;
+    }
 
-        int victimPage=-1;
-        long oldestTime=Long.MAX_VALUE;
-        for (int p=0; p < numPages; p++) {
-            if (pageTable[p]!=-1) { 
-                if (lastUsed[p]<oldestTime) {
-                    oldestTime=lastUsed[p];
-                    victimPage=p;
-                }
+    private int serviceSuperpageFault(int pageNumber) throws MemoryException {
+        int size=superpages.size();
+        int region=superpages.region(pageNumber);
+        int victimFrame=policy.selectVictim(pageNumber);
+        int base=victimFrame & -size;
+        for (int frame=base; frame < base + size; frame++) {
+            if (frame != victimFrame) {
+                policy.onRemove(frame);
             }
+            evict(frame, pageNumber);
         }
+        long before=transferredByteCount;
+        int first=superpages.firstPage(region);
+        for (int i=0; i < size; i++) {
+            installPage(first + i, base + i);
+        }
+        superpages.promote(region, base);
+        superpages.recordSuperpageFault(transferredByteCount - before);
+        if (prefetcher != null) {
+            prefetcher.afterFault(pageNumber);
+        }
+        return base + (pageNumber - first);
+    }
 
-        int victimFrame = pageTable[victimPage];
-        if (!dirty[victimPage]) {
-            System.out.println("Evicting page " + victimPage + " (NOT DIRTY)");
+    private void evict(int victimFrame, int pageNumber) throws MemoryException {
+        int victimPage = framePage[victimFrame];
+        boolean victimDirty=dirty[victimFrame];
+        PageEvictionEvent eviction=new PageEvictionEvent();
+        eviction.begin();
+        metrics.recordEviction(victimDirty);
+        if (!victimDirty) {
+            events.pageEvicted(victimPage, victimFrame, false);
         } 
         else {
-            System.out.println("Evicting page " + victimPage);
+            events.pageEvicted(victimPage, victimFrame, true);
             writePageToDisk(victimPage, victimFrame);
-            dirty[victimPage]=false;   
+            dirty[victimFrame]=false;   
+        }
+        pageTable.unmap(victimPage);
+        tlb.invalidate(victimPage);
+        if (superpages != null) {
+            if (superpages.isPromoted(superpages.region(victimPage))) {
+                superpages.demote(superpages.region(victimPage));
+            }
+            superpages.onUnmap(victimPage, victimFrame);
+        }
+        eviction.end();
+        if (eviction.shouldCommit()) {
+            eviction.page=victimPage;
+            eviction.frame=victimFrame;
+            eviction.dirty=victimDirty;
+            eviction.incomingPage=pageNumber;
+            eviction.commit();
+        }
+    }
+
+    private void installPage(int pageNumber, int frame) throws MemoryException {
+        events.pageFault(pageNumber, frame);
+        loadPageIntoFrame(pageNumber, frame);
+        dirty[frame]=false;
+        framePage[frame]=pageNumber;
+        policy.onFault(pageNumber, frame);
+        pageTable.map(pageNumber, frame);
+        if (superpages != null) {
+            superpages.onMap(pageNumber, frame);
         }
-        pageTable[victimPage]=-1;
-        lastUsed[victimPage]=0;         
-        System.out.println("Bringing page " + pageNumber + " into frame " + victimFrame);
-        loadPageIntoFrame(pageNumber, victimFrame);
-        dirty[pageNumber]=false;
-        lastUsed[pageNumber]=++timeCounter;
-        pageTable[pageNumber]=victimFrame;
-        return victimFrame;
+    }
+
+    private int takeFreeFrame() {
+        if (freeCount > 0) {
+            int frame=freeFrames[--freeCount];
+            freeIndex[frame]=-1;
+            return frame;
+        }
+        if (nextFreeFrame < numFrames) {
+            return nextFreeFrame++;
+        }
+        return -1;
+    }
+
+    private boolean isFrameFree(int frame) {
+        return frame >= nextFreeFrame || freeIndex[frame] != -1;
+    }
+
+    private void claimFrame(int frame) {
+        if (frame >= nextFreeFrame) {
+            while (nextFreeFrame < frame) {
+                releaseFrame(nextFreeFrame++);
+            }
+            nextFreeFrame++;
+            return;
+        }
+        int index=freeIndex[frame];
+        int last=freeFrames[--freeCount];
+        freeFrames[index]=last;
+        freeIndex[last]=index;
+        freeIndex[frame]=-1;
+    }
+
+    private void releaseFrame(int frame) {
+        framePage[frame]=-1;
+        dirty[frame]=false;
+        freeFrames[freeCount]=frame;
+        freeIndex[frame]=freeCount++;
+    }
+
+    private void promote(int region) throws MemoryException {
+        int size=superpages.size();
+        int first=superpages.firstPage(region);
+        int base=chooseBlock(first, size);
+        for (int i=0; i < size; i++) {
+            int target=base + i;
+            int frame=pageTable.lookup(first + i);
+            if (frame == target) {
+                continue;
+            }
+            if (isFrameFree(target)) {
+                claimFrame(target);
+                moveFrame(frame, target);
+                releaseFrame(frame);
+            } else {
+                swapFrames(frame, target);
+            }
+        }
+        for (int i=0; i < size; i++) {
+            tlb.invalidate(first + i);
+        }
+        superpages.promote(region, base);
+    }
+
+    private int chooseBlock(int first, int size) {
+        IntIntMap inPlace=new IntIntMap(size);
+        int best=pageTable.lookup(first) & -size;
+        int bestCount=0;
+        for (int i=0; i < size; i++) {
+            int frame=pageTable.lookup(first + i);
+            if ((frame & (size - 1)) != i) {
+                continue;
+            }
+            int block=frame & -size;
+            int count=inPlace.containsKey(block) ? inPlace.get(block) + 1 : 1;
+            inPlace.put(block, count);
+            if (count > bestCount) {
+                best=block;
+                bestCount=count;
+            }
+        }
+        return best;
+    }
+
+    private void moveFrame(int from, int to) throws MemoryException {
+        int page=framePage[from];
+        transfer.readFrame(from, moveBuffer);
+        transfer.install(to, moveBuffer);
+        policy.onRemove(from);
+        pageTable.unmap(page);
+        tlb.invalidate(page);
+        framePage[to]=page;
+        dirty[to]=dirty[from];
+        superpages.onMove(from, to);
+        pageTable.map(page, to);
+        policy.onFault(page, to);
+    }
+
+    private void swapFrames(int frameA, int frameB) throws MemoryException {
+        int pageA=framePage[frameA];
+        int pageB=framePage[frameB];
+        transfer.readFrame(frameA, moveBuffer);
+        transfer.readFrame(frameB, swapBuffer);
+        transfer.install(frameA, swapBuffer);
+        transfer.install(frameB, moveBuffer);
+        policy.onRemove(frameA);
+        policy.onRemove(frameB);
+        pageTable.unmap(pageA);
+        pageTable.unmap(pageB);
+        tlb.invalidate(pageA);
+        tlb.invalidate(pageB);
+        framePage[frameA]=pageB;
+        framePage[frameB]=pageA;
+        boolean dirtyA=dirty[frameA];
+        dirty[frameA]=dirty[frameB];
+        dirty[frameB]=dirtyA;
+        superpages.onSwap(frameA, frameB);
+        pageTable.map(pageA, frameB);
+        pageTable.map(pageB, frameA);
+        policy.onFault(pageA, frameB);
+        policy.onFault(pageB, frameA);
     }
 
     private void loadPageIntoFrame(int pageNumber, int frame) throws MemoryException {
-        byte[] pageData=disk.readPage(pageNumber);
-        int baseAddr=frame * pageSize;
-        for (int i=0; i < pageSize; i++) {
-            memory.writeByte(baseAddr + i, pageData[i]);
+        byte[] pending=writeBack == null ? null : writeBack.inFlightCopy(pageNumber);
+        if (pending != null) {
+            transfer.install(frame, pending);
+            return;
+        }
+        byte[] staged=prefetcher == null ? null : prefetcher.take(pageNumber);
+        if (staged != null) {
+            transfer.install(frame, staged);
+            return;
+        }
+        if (transfer.load(pageNumber, frame)) {
+            transferredByteCount+=pageSize;
+            metrics.recordPageIn(pageSize);
         }
-        transferredByteCount+=pageSize; 
     }
 
     private void writePageToDisk(int pageNumber, int frame) throws MemoryException {
-        byte[] data=new byte[pageSize];
-        int baseAddr=frame * pageSize;
-        for (int i=0; i < pageSize; i++) {
-            data[i]=memory.readByte(baseAddr + i);
+        if (prefetcher != null) {
+            prefetcher.invalidate(pageNumber);
+        }
+        if (writeBack != null) {
+            writeBack.await(pageNumber);
+            writeBack.markClean(frame);
+        }
+        if (transfer.store(pageNumber, frame)) {
+            transferredByteCount+=pageSize;
+            metrics.recordPageOut(pageSize);
+        }
+        events.pageWrittenBack(pageNumber, frame);
+    }
+
+    private void markDirty(int frame) throws MemoryException {
+        if (!dirty[frame]) {
+            dirty[frame]=true;
+            if (writeBack != null) {
+                writeBack.markDirty(frame);
+            }
         }
-        disk.writePage(pageNumber, data);
-        transferredByteCount+=pageSize; 
     }
 
     public void writeByte(Integer fourByteBinaryString, Byte value) throws MemoryException {
-        int va=fourByteBinaryString;
-        int pageNumber=getPageNumber(va);
-        int offset=getOffset(va);
+        write(fourByteBinaryString, value);
+    }
+
+    public void write(int virtualAddress, byte value) throws MemoryException {
+        int pageNumber=getPageNumber(virtualAddress);
+        int offset=getOffset(virtualAddress);
         int frame=ensurePageInMemory(pageNumber);
         int physicalAddress=frame * pageSize + offset;
-        memory.writeByte(physicalAddress, value.byteValue());
-        dirty[pageNumber]=true;
-        lastUsed[pageNumber]=++timeCounter;
-        String bitString=BitwiseToolbox.getBitString(physicalAddress, physAddrBits - 1);
-        System.out.println("RAM: @" + bitString + " <-- " + value);
+        memory.writeByte(physicalAddress, value);
+        markDirty(frame);
+        events.memoryWritten(physicalAddress, value);
     }
 
     public Byte readByte(Integer fourByteBinaryString) throws MemoryException {
-        int va=fourByteBinaryString;
-        int pageNumber=getPageNumber(va);
-        int offset=getOffset(va);
+        return read(fourByteBinaryString);
+    }
+
+    public byte read(int virtualAddress) throws MemoryException {
+        int pageNumber=getPageNumber(virtualAddress);
+        int offset=getOffset(virtualAddress);
         int frame=ensurePageInMemory(pageNumber);
         int physicalAddress=frame * pageSize + offset;
         byte value=memory.readByte(physicalAddress);
-        lastUsed[pageNumber]=++timeCounter;
-        String bitString=BitwiseToolbox.getBitString(physicalAddress, physAddrBits - 1);
-        System.out.println("RAM: @" + bitString + " --> " + value);
+        events.memoryRead(physicalAddress, value);
         return value;
     }
 
+    public int readInt(int virtualAddress) throws MemoryException {
+        return blocks.readInt(virtualAddress);
+    }
+
+    public void writeInt(int virtualAddress, int value) throws MemoryException {
+        blocks.writeInt(virtualAddress, value);
+    }
+
+    public long readLong(int virtualAddress) throws MemoryException {
+        return blocks.readLong(virtualAddress);
+    }
+
+    public void writeLong(int virtualAddress, long value) throws MemoryException {
+        blocks.writeLong(virtualAddress, value);
+    }
+
+    public void readBlock(int virtualAddress, byte[] dst, int offset, int length) throws MemoryException {
+        blocks.read(virtualAddress, dst, offset, length);
+    }
+
+    public void readBlock(int virtualAddress, ByteBuffer dst) throws MemoryException {
+        blocks.read(virtualAddress, dst);
+    }
+
+    public void writeBlock(int virtualAddress, byte[] src, int offset, int length) throws MemoryException {
+        blocks.write(virtualAddress, src, offset, length);
+    }
+
+    public void writeBlock(int virtualAddress, ByteBuffer src) throws MemoryException {
+        blocks.write(virtualAddress, src);
+    }
+
     public void printMemoryContent() throws MemoryException {
         int memSize=memory.size();
         for (int addr=0; addr < memSize; addr++) {
@@ -187,19 +562,64 @@ public class VirtualMemoryManagerV4 {
     }
 
     public void writeBackAllPagesToDisk() throws MemoryException {
-        for (int page=0; page < numPages; page++) {
-            int frame=pageTable[page];
-            if (frame!=-1 && dirty[page]) {
-                byte[] data=new byte[pageSize];
-                int baseAddr=frame * pageSize;
-                for (int i=0; i < pageSize; i++) {
-                    data[i]=memory.readByte(baseAddr + i);
+        if (writeBack != null) {
+            writeBack.sync();
+            transfer.flush();
+            return;
+        }
+        for (int frame=0; frame < numFrames; frame++) {
+            int page=framePage[frame];
+            if (page!=-1 && dirty[frame]) {
+                if (prefetcher != null) {
+                    prefetcher.invalidate(page);
                 }
-                disk.writePage(page, data);
-                transferredByteCount+=pageSize;
-                dirty[page]=false;
+                if (transfer.store(page, frame)) {
+                    transferredByteCount+=pageSize;
+                    metrics.recordPageOut(pageSize);
+                }
+                events.pageWrittenBack(page, frame);
+                dirty[frame]=false;
             }
         }
+        transfer.flush();
+    }
+
+    public void saveSnapshot(Path file) throws MemoryException {
+        ManagerSnapshot.save(file, snapshotState());
+    }
+
+    public void restoreSnapshot(Path file) throws MemoryException {
+        ManagerSnapshot.State state=snapshotState();
+        ManagerSnapshot.restore(file, state);
+        policy=state.policy;
+        nextFreeFrame=state.nextFreeFrame;
+        pageFaultCount=state.pageFaultCount;
+        transferredByteCount=state.transferredBytes;
+    }
+
+    private ManagerSnapshot.State snapshotState() throws MemoryException {
+        if (prefetcher != null) {
+            throw new MemoryException("Snapshots cannot be combined with read-ahead");
+        }
+        if (writeBack != null) {
+            throw new MemoryException("Snapshots cannot be combined with the write-back daemon");
+        }
+        if (superpages != null) {
+            throw new MemoryException("Snapshots cannot be combined with superpages");
+        }
+        if (cache != null) {
+            throw new MemoryException("Snapshots cannot be combined with the compressed swap cache");
+        }
+        ManagerSnapshot.State state=new ManagerSnapshot.State(4, memory, disk, pageSize, numPages, numFrames);
+        state.pageTable=pageTable;
+        state.tlb=tlb;
+        state.framePage=framePage;
+        state.dirty=dirty;
+        state.policy=policy;
+        state.nextFreeFrame=nextFreeFrame;
+        state.pageFaultCount=pageFaultCount;
+        state.transferredBytes=transferredByteCount;
+        return state;
     }
 
     public int getPageFaultCount() {
@@ -207,6 +627,110 @@ public class VirtualMemoryManagerV4 {
     }
 
     public int getTransferedByteCount() {
-        return transferredByteCount;
+        return (int) Math.min(getTransferredBytes(), Integer.MAX_VALUE);
+    }
+
+    public void flush() throws MemoryException {
+        if (writeBack != null) {
+            writeBack.flush();
+        }
+    }
+
+    public void sync() throws MemoryException {
+        if (writeBack != null) {
+            writeBack.sync();
+            transfer.flush();
+        } else {
+            writeBackAllPagesToDisk();
+        }
+    }
+
+    public void close() throws MemoryException {
+        try {
+            if (writeBack != null) {
+                sync();
+            }
+        } finally {
+            if (writeBack != null) {
+                writeBack.shutdown();
+            }
+            if (prefetcher != null) {
+                prefetcher.shutdown();
+            }
+        }
+    }
+
+    public long getTransferredBytes() {
+        long total=transferredByteCount;
+        if (prefetcher != null) {
+            total+=prefetcher.getPrefetchedBytes();
+        }
+        if (writeBack != null) {
+            total+=writeBack.getWrittenBytes();
+        }
+        if (cache != null) {
+            total+=cache.getWrittenBackBytes();
+        }
+        return total;
+    }
+
+    public CompressedPageCache getCompressedCache() {
+        return cache;
+    }
+
+    public VmMetrics getMetrics() {
+        return metrics;
+    }
+
+    public VmEventSink getEventSink() {
+        return events;
+    }
+
+    public void setEventSink(VmEventSink events) {
+        this.events=events;
+    }
+
+    public long getTlbHitCount() {
+        return tlb.getHitCount() + (superpages == null ? 0 : superpages.getTlbHitCount());
+    }
+
+    public long getTlbMissCount() {
+        return tlb.getMissCount();
+    }
+
+    public long getBaseTlbReachBytes() {
+        return (long) tlb.size() * pageSize;
+    }
+
+    public long getSuperpageTlbReachBytes() {
+        return superpages == null ? 0 : (long) superpages.getTlbEntries() * superpages.size() * pageSize;
+    }
+
+    public SuperpageTable getSuperpages() {
+        return superpages;
+    }
+
+    public long getMinorFaultCount() {
+        return minorFaultCount;
+    }
+
+    public long getPrefetchIssuedCount() {
+        return prefetcher == null ? 0 : prefetcher.getIssuedCount();
+    }
+
+    public long getPrefetchHitCount() {
+        return prefetcher == null ? 0 : prefetcher.getHitCount();
+    }
+
+    public long getPrefetchWastedCount() {
+        return prefetcher == null ? 0 : prefetcher.getWastedCount();
+    }
+
+    public long getWriteBackCleanedCount() {
+        return writeBack == null ? 0 : writeBack.getCleanedCount();
+    }
+
+    public long getWriteBackBatchCount() {
+        return writeBack == null ? 0 : writeBack.getBatchCount();
     }
 }
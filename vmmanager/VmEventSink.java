@@ -0,0 +1,29 @@
+package vmmanager;
+
+public interface VmEventSink {
+
+    void pageHit(int page, int frame);
+
+    void pageFault(int page, int frame);
+
+    void pageEvicted(int page, int frame, boolean dirty);
+
+    void pageWrittenBack(int page, int frame);
+
+    void memoryRead(int physicalAddress, byte value);
+
+    void memoryWritten(int physicalAddress, byte value);
+
+    static VmEventSink create(VmOptions options, int addressBits, boolean physical) {
+        switch (options.events.toUpperCase()) {
+            case "TEXT":
+                return new TextEventSink(addressBits, physical);
+            case "NONE":
+                return NoOpEventSink.INSTANCE;
+            case "RING":
+                return new RingBufferEventSink(options.eventRingCapacity);
+            default:
+                throw new IllegalArgumentException("Unknown event sink: " + options.events);
+        }
+    }
+}
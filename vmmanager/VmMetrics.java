@@ -0,0 +1,152 @@
+package vmmanager;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+public class VmMetrics implements VmMetricsMXBean {
+
+    private LongAdder hits=new LongAdder();
+    private LongAdder faults=new LongAdder();
+    private LongAdder minorFaults=new LongAdder();
+    private LongAdder cleanEvictions=new LongAdder();
+    private LongAdder dirtyEvictions=new LongAdder();
+    private LongAdder writeBacks=new LongAdder();
+    private LongAdder bytesIn=new LongAdder();
+    private LongAdder bytesOut=new LongAdder();
+    private LatencyHistogram faultLatency=new LatencyHistogram();
+
+    private ObjectName objectName;
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordFault(long nanos) {
+        faults.increment();
+        faultLatency.record(nanos);
+    }
+
+    public void recordMinorFault() {
+        minorFaults.increment();
+    }
+
+    public void recordEviction(boolean dirty) {
+        if (dirty) {
+            dirtyEvictions.increment();
+        } else {
+            cleanEvictions.increment();
+        }
+    }
+
+    public void recordPageIn(int bytes) {
+        bytesIn.add(bytes);
+    }
+
+    public void recordPageOut(int bytes) {
+        writeBacks.increment();
+        bytesOut.add(bytes);
+    }
+
+    public LatencyHistogram getFaultLatency() {
+        return faultLatency;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getPageFaultCount() {
+        return faults.sum();
+    }
+
+    public long getMinorFaultCount() {
+        return minorFaults.sum();
+    }
+
+    public long getCleanEvictionCount() {
+        return cleanEvictions.sum();
+    }
+
+    public long getDirtyEvictionCount() {
+        return dirtyEvictions.sum();
+    }
+
+    public long getWriteBackCount() {
+        return writeBacks.sum();
+    }
+
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    public double getHitRatio() {
+        long hitCount=hits.sum();
+        long total=hitCount + faults.sum() + minorFaults.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public long getFaultLatencyP50() {
+        return faultLatency.getValueAtPercentile(50);
+    }
+
+    public long getFaultLatencyP99() {
+        return faultLatency.getValueAtPercentile(99);
+    }
+
+    public long getFaultLatencyP999() {
+        return faultLatency.getValueAtPercentile(99.9);
+    }
+
+    public long getFaultLatencyMax() {
+        return faultLatency.getMax();
+    }
+
+    public double getFaultLatencyMean() {
+        return faultLatency.getMean();
+    }
+
+    public void reset() {
+        hits.reset();
+        faults.reset();
+        minorFaults.reset();
+        cleanEvictions.reset();
+        dirtyEvictions.reset();
+        writeBacks.reset();
+        bytesIn.reset();
+        bytesOut.reset();
+        faultLatency.reset();
+    }
+
+    public void register(String name) {
+        try {
+            MBeanServer server=ManagementFactory.getPlatformMBeanServer();
+            ObjectName candidate=new ObjectName("vmmanager:type=VirtualMemoryManager,name=" + ObjectName.quote(name));
+            if (server.isRegistered(candidate)) {
+                server.unregisterMBean(candidate);
+            }
+            server.registerMBean(this, candidate);
+            objectName=candidate;
+        } catch (JMException e) {
+            System.err.println("Metrics: cannot register MBean " + name + ": " + e.getMessage());
+        }
+    }
+
+    public void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            System.err.println("Metrics: cannot unregister MBean: " + e.getMessage());
+        }
+        objectName=null;
+    }
+}
@@ -0,0 +1,34 @@
+package vmmanager;
+
+public interface VmMetricsMXBean {
+
+    long getHitCount();
+
+    long getPageFaultCount();
+
+    long getMinorFaultCount();
+
+    long getCleanEvictionCount();
+
+    long getDirtyEvictionCount();
+
+    long getWriteBackCount();
+
+    long getBytesIn();
+
+    long getBytesOut();
+
+    double getHitRatio();
+
+    long getFaultLatencyP50();
+
+    long getFaultLatencyP99();
+
+    long getFaultLatencyP999();
+
+    long getFaultLatencyMax();
+
+    double getFaultLatencyMean();
+
+    void reset();
+}
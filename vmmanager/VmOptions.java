@@ -0,0 +1,69 @@
+package vmmanager;
+
+public class VmOptions {
+
+    public String policy="LRU";
+    public String optTrace="";
+
+    public String replacementScope="GLOBAL";
+
+    public int workingSetWindow=1000;
+    public int pffHigh=50;
+    public int pffLow=5;
+    public int loadControlQuantum=10000;
+
+    public String pageTable="FLAT";
+
+    public int tlbEntries=16;
+    public int tlbWays=0;
+    public String tlbReplacement="LRU";
+
+    public int hugePageOrder=0;
+    public int hugeTlbEntries=8;
+    public int hugePagePromoteAccesses=4;
+    public boolean hugePageFaultIn=true;
+
+    public int prefetchWindow=0;
+
+    public int writeBackHigh=0;
+    public int writeBackLow=0;
+
+    public int stripes=0;
+
+    public long compressedCacheBytes=0;
+    public boolean compressedCacheRaw=true;
+
+    public String events="TEXT";
+    public int eventRingCapacity=1 << 16;
+
+    public String metricsMBean="";
+
+    public static VmOptions fromSystemProperties() {
+        VmOptions options=new VmOptions();
+        options.policy=System.getProperty("vmmanager.policy", options.policy);
+        options.optTrace=System.getProperty("vmmanager.opt.trace", options.optTrace);
+        options.replacementScope=System.getProperty("vmmanager.replacement.scope", options.replacementScope);
+        options.workingSetWindow=Integer.getInteger("vmmanager.ws.window", options.workingSetWindow);
+        options.pffHigh=Integer.getInteger("vmmanager.pff.high", options.pffHigh);
+        options.pffLow=Integer.getInteger("vmmanager.pff.low", options.pffLow);
+        options.loadControlQuantum=Integer.getInteger("vmmanager.loadcontrol.quantum", options.loadControlQuantum);
+        options.pageTable=System.getProperty("vmmanager.pagetable", options.pageTable);
+        options.tlbEntries=Integer.getInteger("vmmanager.tlb.entries", options.tlbEntries);
+        options.tlbWays=Integer.getInteger("vmmanager.tlb.ways", options.tlbWays);
+        options.tlbReplacement=System.getProperty("vmmanager.tlb.replacement", options.tlbReplacement);
+        options.hugePageOrder=Integer.getInteger("vmmanager.hugepage.order", options.hugePageOrder);
+        options.hugeTlbEntries=Integer.getInteger("vmmanager.hugepage.tlb.entries", options.hugeTlbEntries);
+        options.hugePagePromoteAccesses=Integer.getInteger("vmmanager.hugepage.promote", options.hugePagePromoteAccesses);
+        options.hugePageFaultIn=Boolean.parseBoolean(System.getProperty("vmmanager.hugepage.faultin", String.valueOf(options.hugePageFaultIn)));
+        options.prefetchWindow=Integer.getInteger("vmmanager.prefetch.window", options.prefetchWindow);
+        options.writeBackHigh=Integer.getInteger("vmmanager.writeback.high", options.writeBackHigh);
+        options.writeBackLow=Integer.getInteger("vmmanager.writeback.low", options.writeBackLow);
+        options.stripes=Integer.getInteger("vmmanager.stripes", options.stripes);
+        options.compressedCacheBytes=Long.getLong("vmmanager.zswap.bytes", options.compressedCacheBytes);
+        options.compressedCacheRaw=Boolean.parseBoolean(System.getProperty("vmmanager.zswap.raw", String.valueOf(options.compressedCacheRaw)));
+        options.events=System.getProperty("vmmanager.events", options.events);
+        options.eventRingCapacity=Integer.getInteger("vmmanager.events.capacity", options.eventRingCapacity);
+        options.metricsMBean=System.getProperty("vmmanager.metrics.mbean", options.metricsMBean);
+        return options;
+    }
+}
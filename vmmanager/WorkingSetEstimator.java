@@ -0,0 +1,58 @@
+package vmmanager;
+
+import java.util.Arrays;
+
+public class WorkingSetEstimator {
+
+    private long[] lastUse;
+    private int[] window;
+    private long time=0;
+    private int size=0;
+
+    public WorkingSetEstimator(int numPages, int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Working set window must be > 0");
+        }
+        lastUse=new long[numPages];
+        Arrays.fill(lastUse, -1);
+        this.window=new int[window];
+    }
+
+    public void access(int page) {
+        int slot=(int) (time % window.length);
+        if (time >= window.length) {
+            int expired=window[slot];
+            if (lastUse[expired] == time - window.length) {
+                size--;
+            }
+        }
+        long last=lastUse[page];
+        if (last == -1 || last <= time - window.length) {
+            size++;
+        }
+        lastUse[page]=time;
+        window[slot]=page;
+        time++;
+    }
+
+    public boolean contains(int page) {
+        long last=lastUse[page];
+        return last != -1 && last >= time - window.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long time() {
+        return time;
+    }
+
+    public int window() {
+        return window.length;
+    }
+
+    public long lastUse(int page) {
+        return lastUse[page];
+    }
+}
@@ -0,0 +1,228 @@
+package vmmanager;
+
+import vmsimulation.BackingStore;
+import vmsimulation.MemoryException;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+public class WriteBackDaemon {
+
+    private PageTransfer transfer;
+    private BackingStore disk;
+    private int pageSize;
+    private boolean[] dirty;
+    private int[] framePage;
+    private VmMetrics metrics;
+
+    private int highWatermark;
+    private int lowWatermark;
+
+    private LruList dirtyFrames;
+
+    private ExecutorService executor;
+    private LinkedBlockingQueue<int[]> completed=new LinkedBlockingQueue<>();
+    private IntIntMap inFlight;
+    private byte[][] buffers;
+    private int[] freeBuffers;
+    private int freeCount;
+    private int inFlightCount=0;
+
+    private long cleanedCount=0;
+    private long batchCount=0;
+    private long writtenBytes=0;
+    private volatile MemoryException failure;
+
+    public WriteBackDaemon(PageTransfer transfer, BackingStore disk, int pageSize,
+                           boolean[] dirty, int[] framePage, int highWatermark, int lowWatermark,
+                           VmMetrics metrics) {
+        int numFrames=dirty.length;
+        this.transfer=transfer;
+        this.disk=disk;
+        this.pageSize=pageSize;
+        this.dirty=dirty;
+        this.framePage=framePage;
+        this.metrics=metrics;
+        this.highWatermark=Math.max(1, Math.min(highWatermark, numFrames));
+        this.lowWatermark=Math.max(0, Math.min(lowWatermark, this.highWatermark - 1));
+        dirtyFrames=new LruList(numFrames);
+        inFlight=new IntIntMap(numFrames);
+        buffers=new byte[numFrames][];
+        freeBuffers=new int[numFrames];
+        for (int i=0; i < numFrames; i++) {
+            freeBuffers[i]=numFrames - 1 - i;
+        }
+        freeCount=numFrames;
+        executor=Executors.newSingleThreadExecutor(r -> {
+            Thread thread=new Thread(r, "vm-writeback");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void markDirty(int frame) throws MemoryException {
+        dirtyFrames.touch(frame);
+        if (dirtyFrames.size() > highWatermark) {
+            clean(dirtyFrames.size() - lowWatermark);
+        }
+    }
+
+    public void markClean(int frame) {
+        dirtyFrames.remove(frame);
+    }
+
+    public byte[] inFlightCopy(int page) throws MemoryException {
+        drain();
+        int slot=inFlight.get(page);
+        return slot == -1 ? null : buffers[slot];
+    }
+
+    public boolean isInFlight(int page) {
+        return inFlight.containsKey(page);
+    }
+
+    public void await(int page) throws MemoryException {
+        int slot=inFlight.get(page);
+        if (slot != -1) {
+            awaitSlot(page, slot);
+        }
+        rethrow();
+    }
+
+    public void flush() throws MemoryException {
+        clean(dirtyFrames.size());
+    }
+
+    public void sync() throws MemoryException {
+        flush();
+        try {
+            while (inFlightCount > 0) {
+                accept(completed.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rethrow();
+    }
+
+    public int getDirtyCount() {
+        return dirtyFrames.size();
+    }
+
+    public long getCleanedCount() {
+        return cleanedCount;
+    }
+
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    public long getWrittenBytes() {
+        return writtenBytes;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+        completed.clear();
+        Arrays.fill(buffers, null);
+    }
+
+    private void clean(int count) throws MemoryException {
+        drain();
+        count=Math.min(count, dirtyFrames.size());
+        if (count == 0) {
+            return;
+        }
+        long[] batch=new long[count];
+        for (int i=0; i < count; i++) {
+            int frame=dirtyFrames.eldest();
+            dirtyFrames.remove(frame);
+            batch[i]=((long) framePage[frame] << 32) | frame;
+        }
+        Arrays.sort(batch);
+        int[] pages=new int[count];
+        int[] slots=new int[count];
+        for (int i=0; i < count; i++) {
+            int page=(int) (batch[i] >>> 32);
+            int frame=(int) batch[i];
+            int slot=acquireBuffer(page);
+            transfer.readFrame(frame, buffers[slot]);
+            transfer.invalidate(page);
+            dirty[frame]=false;
+            pages[i]=page;
+            slots[i]=slot;
+        }
+        batchCount++;
+        executor.execute(() -> {
+            for (int i=0; i < pages.length; i++) {
+                try {
+                    disk.writePage(pages[i], buffers[slots[i]]);
+                } catch (MemoryException e) {
+                    failure=e;
+                }
+                completed.add(new int[] {pages[i], slots[i]});
+            }
+        });
+    }
+
+    private int acquireBuffer(int page) throws MemoryException {
+        await(page);
+        if (freeCount == 0) {
+            try {
+                accept(completed.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MemoryException("Write-back interrupted");
+            }
+        }
+        int slot=freeBuffers[--freeCount];
+        if (buffers[slot] == null) {
+            buffers[slot]=new byte[pageSize];
+        }
+        inFlight.put(page, slot);
+        inFlightCount++;
+        return slot;
+    }
+
+    private void awaitSlot(int page, int slot) throws MemoryException {
+        try {
+            while (inFlight.get(page) == slot) {
+                accept(completed.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MemoryException("Write-back interrupted");
+        }
+    }
+
+    private void drain() throws MemoryException {
+        int[] completion;
+        while ((completion=completed.poll()) != null) {
+            accept(completion);
+        }
+        rethrow();
+    }
+
+    private void accept(int[] completion) {
+        int page=completion[0];
+        int slot=completion[1];
+        if (inFlight.get(page) == slot) {
+            inFlight.remove(page);
+        }
+        freeBuffers[freeCount++]=slot;
+        inFlightCount--;
+        cleanedCount++;
+        writtenBytes+=pageSize;
+        metrics.recordPageOut(pageSize);
+    }
+
+    private void rethrow() throws MemoryException {
+        MemoryException e=failure;
+        if (e != null) {
+            failure=null;
+            throw e;
+        }
+    }
+}